@@ -1,8 +1,13 @@
 package com.worldoforbis;
 
 import org.bukkit.plugin.java.JavaPlugin;
+import com.worldoforbis.economy.BackupManager;
+import com.worldoforbis.economy.EconomyImporter;
 import com.worldoforbis.economy.EconomyManager;
+import com.worldoforbis.economy.InterestScheduler;
 import com.worldoforbis.economy.ItemPriceManager;
+import com.worldoforbis.economy.SellLimitManager;
+import com.worldoforbis.events.BalanceChangeBus;
 import com.worldoforbis.commands.EcoCommand;
 import com.worldoforbis.commands.TestCommand;
 import com.worldoforbis.listeners.PlayerListener;
@@ -11,9 +16,20 @@ public class Econoneeds extends JavaPlugin {
 
     @Override
     public void onEnable() {
+        saveDefaultConfig();
+
         // Initialize economy system
+        BalanceChangeBus.initialize(this);
         EconomyManager.initialize(this);
         ItemPriceManager.initialize(this);
+        InterestScheduler.initialize(this);
+        SellLimitManager.initialize(this);
+        EconomyImporter.initialize(this);
+        BackupManager.initialize(this);
+
+        // Refresh economy distribution stats
+        getServer().getScheduler().runTaskTimer(this, () -> EconomyManager.getInstance().getStats().refresh(),
+                600L, 600L);
 
         // Register commands
         EcoCommand ecoCommand = new EcoCommand();
@@ -29,7 +45,8 @@ public class Econoneeds extends JavaPlugin {
 
     @Override
     public void onDisable() {
-        // Save economy data before shutdown
+        // Pause any running import, then save economy data before shutdown
+        EconomyImporter.getInstance().cancel();
         EconomyManager.getInstance().save();
 
         getLogger().info("Econoneeds has been disabled!");
@@ -1,7 +1,13 @@
 package com.worldoforbis.commands;
 
+import com.worldoforbis.economy.BackupManager;
+import com.worldoforbis.economy.EconomyImporter;
 import com.worldoforbis.economy.EconomyManager;
+import com.worldoforbis.economy.EconomyStats;
 import com.worldoforbis.economy.ItemPriceManager;
+import com.worldoforbis.economy.PriceCatalog;
+import com.worldoforbis.economy.PriceCategory;
+import com.worldoforbis.economy.SellLimitManager;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
@@ -26,12 +32,19 @@ import java.util.stream.Collectors;
  * /eco bal - Check your balance
  * /eco pay <player> <amount> - Send money to a player
  * /eco top - View richest players
+ * /eco prices [category|search] [page] - Browse sell prices
+ * /eco worth - Appraise the item in hand and your inventory
  * 
  * Admin commands (requires econoneeds.admin):
  * /eco give <player> <amount> - Give money to a player
  * /eco take <player> <amount> - Take money from a player
  * /eco set <player> <amount> - Set a player's balance
  * /eco check <player> - Check a player's balance
+ * /eco economy - View money supply and distribution
+ * /eco import <essentials|csv> <path> - Import balances from another plugin
+ * /eco import <resume|status|cancel> - Manage a running import
+ * /eco backup [list] - Take a backup or list backups
+ * /eco backup restore <file> [player] - Restore everyone or one player from a backup
  * /eco sell <amount> - Sell item in hand
  */
 public class EcoCommand implements CommandExecutor, TabCompleter {
@@ -57,6 +70,10 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
                 return handlePay(sender, args);
             case "top":
                 return handleTop(sender);
+            case "prices":
+                return handlePrices(sender, args);
+            case "worth":
+                return handleWorth(sender);
 
             // Admin commands
             case "give":
@@ -67,6 +84,12 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
                 return handleSet(sender, args);
             case "check":
                 return handleCheck(sender, args);
+            case "economy":
+                return handleEconomy(sender);
+            case "import":
+                return handleImport(sender, args);
+            case "backup":
+                return handleBackup(sender, args);
             case "sell":
                 return handleSell(sender, args);
 
@@ -130,6 +153,7 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
 
         economy.removeBalance(player.getUniqueId(), amount);
         economy.addBalance(target.getUniqueId(), amount);
+        economy.getStats().recordTransfer(amount);
 
         String formattedAmount = EconomyManager.formatCurrency(amount);
         player.sendMessage("§aYou sent " + formattedAmount + " to §f" + target.getName());
@@ -177,6 +201,78 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    private boolean handlePrices(CommandSender sender, String[] args) {
+        PriceCatalog catalog = ItemPriceManager.getInstance().getCatalog();
+
+        // /eco prices [page]
+        if (args.length < 2 || isPageNumber(args[1])) {
+            sendLines(sender, catalog.getPage(args.length < 2 ? 1 : Integer.parseInt(args[1])));
+            sender.sendMessage("§7Categories: §f" + Arrays.stream(PriceCategory.values())
+                    .map(PriceCategory::getKey)
+                    .collect(Collectors.joining(", ")));
+            return true;
+        }
+
+        // A trailing number is the page, everything before it is the query
+        int end = args.length;
+        int page = 1;
+        if (args.length >= 3 && isPageNumber(args[args.length - 1])) {
+            page = Integer.parseInt(args[args.length - 1]);
+            end--;
+        }
+        String query = String.join(" ", Arrays.copyOfRange(args, 1, end));
+
+        // /eco prices <category> [page]
+        PriceCategory category = PriceCategory.fromKey(query);
+        if (category != null) {
+            sendLines(sender, catalog.getPage(category, page));
+            return true;
+        }
+
+        // /eco prices <search> [page]
+        List<PriceCatalog.Entry> matches = catalog.search(query);
+        if (matches.isEmpty()) {
+            sender.sendMessage("§cNo sellable items match: §f" + query);
+            return true;
+        }
+
+        int pageSize = PriceCatalog.PAGE_SIZE;
+        int pageCount = (matches.size() + pageSize - 1) / pageSize;
+        page = Math.max(1, Math.min(page, pageCount));
+        sender.sendMessage("§6§l=== Prices matching \"" + query + "\" §7(" + page + "/" + pageCount + ") §6§l===");
+        for (int i = (page - 1) * pageSize; i < Math.min(matches.size(), page * pageSize); i++) {
+            sender.sendMessage(matches.get(i).getLine());
+        }
+        return true;
+    }
+
+    private boolean handleWorth(CommandSender sender) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage("§cThis command can only be used by players.");
+            return true;
+        }
+
+        Player player = (Player) sender;
+        ItemPriceManager priceManager = ItemPriceManager.getInstance();
+        ItemStack item = player.getInventory().getItemInMainHand();
+
+        if (item != null && item.getType() != Material.AIR) {
+            String itemName = item.getType().name().replace("_", " ").toLowerCase();
+            double price = priceManager.getPrice(item);
+            if (price > 0) {
+                player.sendMessage("§aIn hand: §f" + item.getAmount() + "x " + itemName + "§a worth "
+                        + EconomyManager.formatCurrency(price * item.getAmount()) + " §7("
+                        + EconomyManager.formatCurrency(price) + " each)");
+            } else {
+                player.sendMessage("§7In hand: §f" + itemName + "§7 cannot be sold.");
+            }
+        }
+
+        double total = priceManager.appraise(player.getInventory().getStorageContents());
+        player.sendMessage("§aInventory value: §f" + EconomyManager.formatCurrency(total));
+        return true;
+    }
+
     // ==================== ADMIN COMMANDS ====================
 
     private boolean handleGive(CommandSender sender, String[] args) {
@@ -314,6 +410,143 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    private boolean handleEconomy(CommandSender sender) {
+        if (!sender.hasPermission("econoneeds.admin")) {
+            sender.sendMessage("§cYou don't have permission to use this command.");
+            return true;
+        }
+
+        EconomyStats stats = EconomyManager.getInstance().getStats();
+
+        sender.sendMessage("§6§l=== Economy Overview ===");
+        sender.sendMessage("§7Money supply: §a" + EconomyManager.formatCurrency(stats.getTotalSupply())
+                + " §7across §f" + stats.getAccountCount() + " §7accounts");
+        sender.sendMessage("§7Mean: §a" + EconomyManager.formatCurrency(stats.getMean())
+                + " §7Std dev: §a" + EconomyManager.formatCurrency(stats.getStandardDeviation()));
+        sender.sendMessage("§7Median: §a" + EconomyManager.formatCurrency(stats.getMedian())
+                + " §7p90: §a" + EconomyManager.formatCurrency(stats.getQuantile(4))
+                + " §7p99: §a" + EconomyManager.formatCurrency(stats.getQuantile(5)));
+        sender.sendMessage("§7Gini coefficient: §f" + String.format("%.3f", stats.getGini()));
+        sender.sendMessage("§7Transfers: §a" + EconomyManager.formatCurrency(stats.getTransferVolume())
+                + " §7in §f" + stats.getTransferCount() + " §7payments (velocity §f"
+                + String.format("%.3f", stats.getVelocity()) + "§7)");
+        sender.sendMessage("§7Sell revenue: §a" + EconomyManager.formatCurrency(stats.getTotalSales()));
+
+        for (Material material : stats.getTopSellingMaterials()) {
+            String itemName = material.name().replace("_", " ").toLowerCase();
+            sender.sendMessage("§7 - §f" + itemName + "§7: §a" + EconomyManager.formatCurrency(stats.getSales(material)));
+        }
+
+        long age = (System.currentTimeMillis() - stats.getRefreshedAt()) / 1000;
+        sender.sendMessage("§8Distribution as of " + age + "s ago. Sales and transfers since server start.");
+        return true;
+    }
+
+    private boolean handleImport(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("econoneeds.admin")) {
+            sender.sendMessage("§cYou don't have permission to use this command.");
+            return true;
+        }
+
+        if (args.length < 2) {
+            sender.sendMessage("§cUsage: /eco import <essentials|csv> <path>");
+            sender.sendMessage("§cUsage: /eco import <resume|status|cancel>");
+            return true;
+        }
+
+        EconomyImporter importer = EconomyImporter.getInstance();
+        String action = args[1].toLowerCase();
+        String error = null;
+
+        switch (action) {
+            case "status":
+                sender.sendMessage("§7" + importer.getStatus());
+                return true;
+            case "cancel":
+                if (!importer.isRunning()) {
+                    sender.sendMessage("§cNo import is running.");
+                    return true;
+                }
+                importer.cancel();
+                sender.sendMessage("§eImport paused. Use /eco import resume to continue.");
+                return true;
+            case "resume":
+                error = importer.resume(sender);
+                break;
+            default:
+                if (args.length < 3) {
+                    sender.sendMessage("§cUsage: /eco import <essentials|csv> <path>");
+                    return true;
+                }
+                String path = String.join(" ", Arrays.copyOfRange(args, 2, args.length));
+                error = importer.start(sender, action, path);
+                break;
+        }
+
+        if (error != null) {
+            sender.sendMessage("§c" + error);
+        }
+        return true;
+    }
+
+    private boolean handleBackup(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("econoneeds.admin")) {
+            sender.sendMessage("§cYou don't have permission to use this command.");
+            return true;
+        }
+
+        BackupManager backups = BackupManager.getInstance();
+        String action = args.length >= 2 ? args[1].toLowerCase() : "create";
+
+        switch (action) {
+            case "create":
+                if (backups.createBackup(sender)) {
+                    sender.sendMessage("§7Backup started...");
+                } else {
+                    sender.sendMessage("§cA backup is already being written.");
+                }
+                return true;
+            case "list": {
+                List<String> names = backups.listBackups();
+                sender.sendMessage("§6§l=== Backups ===");
+                if (names.isEmpty()) {
+                    sender.sendMessage("§7No backups yet.");
+                }
+                for (String name : names) {
+                    sender.sendMessage("§f" + name);
+                }
+                return true;
+            }
+            case "restore": {
+                if (args.length < 3) {
+                    sender.sendMessage("§cUsage: /eco backup restore <file> [player]");
+                    return true;
+                }
+
+                String error;
+                if (args.length >= 4) {
+                    OfflinePlayer target = getOfflinePlayer(args[3]);
+                    if (target == null) {
+                        sender.sendMessage("§cPlayer not found: " + args[3]);
+                        return true;
+                    }
+                    String playerName = target.getName() != null ? target.getName() : args[3];
+                    error = backups.restoreAccount(sender, args[2], target.getUniqueId(), playerName);
+                } else {
+                    error = backups.restoreAll(sender, args[2]);
+                }
+
+                if (error != null) {
+                    sender.sendMessage("§c" + error);
+                }
+                return true;
+            }
+            default:
+                sender.sendMessage("§cUsage: /eco backup [create|list|restore <file> [player]]");
+                return true;
+        }
+    }
+
     private boolean handleSell(CommandSender sender, String[] args) {
         if (!(sender instanceof Player)) {
             sender.sendMessage("§cThis command can only be used by players.");
@@ -328,9 +561,10 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        // Check if item is sellable
+        // Check if item is sellable, including enchantments, custom model data and tags
         ItemPriceManager priceManager = ItemPriceManager.getInstance();
-        if (!priceManager.isSellable(item.getType())) {
+        double pricePerItem = priceManager.getPrice(item);
+        if (pricePerItem <= 0) {
             player.sendMessage("§cThis item cannot be sold: §f" + item.getType().name());
             return true;
         }
@@ -356,8 +590,21 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
+        // Check rolling sell limit
+        SellLimitManager sellLimits = SellLimitManager.getInstance();
+        int remaining = sellLimits.getRemaining(player.getUniqueId(), item.getType());
+        if (remaining < amount) {
+            if (remaining == 0) {
+                player.sendMessage("§cYou have reached the sell limit for §f" + item.getType().name()
+                        + "§c. Try again later.");
+            } else {
+                player.sendMessage("§cYou can only sell §f" + remaining + "§c more of this item this "
+                        + sellLimits.getWindowName() + ".");
+            }
+            return true;
+        }
+
         // Calculate earnings
-        double pricePerItem = priceManager.getPrice(item.getType());
         double totalEarnings = pricePerItem * amount;
 
         // Remove items from inventory
@@ -371,6 +618,8 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
         // Add money to player's balance
         EconomyManager economy = EconomyManager.getInstance();
         economy.addBalance(player.getUniqueId(), totalEarnings);
+        sellLimits.recordSale(player.getUniqueId(), item.getType(), amount);
+        economy.getStats().recordSale(item.getType(), totalEarnings);
 
         // Send success message
         String itemName = item.getType().name().replace("_", " ").toLowerCase();
@@ -389,6 +638,8 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage("§e/eco pay <player> <amount> §7- Send money");
         sender.sendMessage("§e/eco top §7- View richest players");
         sender.sendMessage("§e/eco sell [amount] §7- Sell item in hand");
+        sender.sendMessage("§e/eco prices [category|search] [page] §7- Browse sell prices");
+        sender.sendMessage("§e/eco worth §7- Appraise your inventory");
 
         if (sender.hasPermission("econoneeds.admin")) {
             sender.sendMessage("§6--- Admin Commands ---");
@@ -396,7 +647,28 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
             sender.sendMessage("§e/eco take <player> <amount> §7- Take money");
             sender.sendMessage("§e/eco set <player> <amount> §7- Set balance");
             sender.sendMessage("§e/eco check <player> §7- Check player balance");
+            sender.sendMessage("§e/eco economy §7- View money supply and distribution");
+            sender.sendMessage("§e/eco import <essentials|csv> <path> §7- Import balances");
+            sender.sendMessage("§e/eco backup [list|restore <file> [player]] §7- Manage backups");
+        }
+    }
+
+    private void sendLines(CommandSender sender, List<String> lines) {
+        for (String line : lines) {
+            sender.sendMessage(line);
+        }
+    }
+
+    private boolean isPageNumber(String arg) {
+        if (arg.isEmpty() || arg.length() > 6) {
+            return false;
+        }
+        for (int i = 0; i < arg.length(); i++) {
+            if (!Character.isDigit(arg.charAt(i))) {
+                return false;
+            }
         }
+        return true;
     }
 
     private OfflinePlayer getOfflinePlayer(String name) {
@@ -431,9 +703,10 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String label, String[] args) {
         if (args.length == 1) {
-            List<String> subCommands = Arrays.asList("bal", "pay", "top", "sell");
+            List<String> subCommands = Arrays.asList("bal", "pay", "top", "sell", "prices", "worth");
             if (sender.hasPermission("econoneeds.admin")) {
-                subCommands = Arrays.asList("bal", "pay", "top", "sell", "give", "take", "set", "check");
+                subCommands = Arrays.asList("bal", "pay", "top", "sell", "prices", "worth", "give", "take", "set",
+                        "check", "economy", "import", "backup");
             }
             return subCommands.stream()
                     .filter(s -> s.startsWith(args[0].toLowerCase()))
@@ -448,6 +721,29 @@ public class EcoCommand implements CommandExecutor, TabCompleter {
                         .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
                         .collect(Collectors.toList());
             }
+            if (sub.equals("prices")) {
+                return Arrays.stream(PriceCategory.values())
+                        .map(PriceCategory::getKey)
+                        .filter(key -> key.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            }
+            if (sub.equals("import") && sender.hasPermission("econoneeds.admin")) {
+                return Arrays.asList("essentials", "csv", "resume", "status", "cancel").stream()
+                        .filter(s -> s.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            }
+            if (sub.equals("backup") && sender.hasPermission("econoneeds.admin")) {
+                return Arrays.asList("create", "list", "restore").stream()
+                        .filter(s -> s.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            }
+        }
+
+        if (args.length == 3 && args[0].equalsIgnoreCase("backup") && args[1].equalsIgnoreCase("restore")
+                && sender.hasPermission("econoneeds.admin")) {
+            return BackupManager.getInstance().listBackups().stream()
+                    .filter(name -> name.startsWith(args[2]))
+                    .collect(Collectors.toList());
         }
 
         return Collections.emptyList();
@@ -0,0 +1,298 @@
+package com.worldoforbis.economy;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Takes compressed point-in-time backups of every balance.
+ *
+ * A backup opens a {@link BalanceSnapshot} on the main thread, which costs
+ * O(1) regardless of how many accounts exist, then writes it as a gzipped
+ * "uuid,balance" CSV on a background thread while the economy keeps
+ * running. Old backups are rotated out by count and age.
+ */
+public class BackupManager {
+
+    private static final String PREFIX = "economy-";
+    private static final String SUFFIX = ".csv.gz";
+
+    private static BackupManager instance;
+    private final JavaPlugin plugin;
+    private final File backupFolder;
+
+    private final int keep;
+    private final long retentionMillis;
+    private volatile boolean writing;
+
+    private BackupManager(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.backupFolder = new File(plugin.getDataFolder(), "backups");
+
+        FileConfiguration config = plugin.getConfig();
+        keep = Math.max(1, config.getInt("backups.keep", 48));
+        retentionMillis = Math.max(0L, config.getLong("backups.retention-days", 14L)) * 24L * 60L * 60_000L;
+    }
+
+    public static void initialize(JavaPlugin plugin) {
+        if (instance == null) {
+            instance = new BackupManager(plugin);
+
+            long interval = plugin.getConfig().getLong("backups.interval-minutes", 60L) * 1200L;
+            if (interval > 0) {
+                plugin.getServer().getScheduler().runTaskTimer(plugin, () -> instance.createBackup(null), interval,
+                        interval);
+            }
+        }
+    }
+
+    public static BackupManager getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("BackupManager has not been initialized!");
+        }
+        return instance;
+    }
+
+    /**
+     * Start a backup. Must be called on the main thread.
+     *
+     * @param sender Who is told when the backup finishes, or null
+     * @return false if a backup is already being written
+     */
+    public boolean createBackup(CommandSender sender) {
+        return createBackup(sender, null);
+    }
+
+    /**
+     * @param restoring A backup about to be restored, which rotation must not delete, or null
+     */
+    private boolean createBackup(CommandSender sender, File restoring) {
+        if (writing) {
+            return false;
+        }
+        writing = true;
+        BalanceSnapshot snapshot = EconomyManager.getInstance().openSnapshot();
+
+        String name = PREFIX + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(snapshot.getCreatedAt()))
+                + SUFFIX;
+        File target = new File(backupFolder, name);
+        File pinned = restoring != null ? restoring : getUnfinishedRestore();
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            String message;
+            try {
+                int count = write(snapshot, target);
+                rotate(pinned);
+                message = "§aBackup §f" + name + "§a written with §f" + count + "§a accounts.";
+            } catch (IOException | UncheckedIOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not write backup " + name, e);
+                message = "§cBackup failed: " + e.getMessage();
+            } finally {
+                EconomyManager.getInstance().closeSnapshot(snapshot);
+                writing = false;
+            }
+            sendResult(sender, message);
+        });
+        return true;
+    }
+
+    private int write(BalanceSnapshot snapshot, File target) throws IOException {
+        if (!backupFolder.exists()) {
+            backupFolder.mkdirs();
+        }
+
+        File tempFile = new File(backupFolder, target.getName() + ".tmp");
+        int[] count = new int[1];
+        try {
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(new FileOutputStream(tempFile), 1 << 16), StandardCharsets.UTF_8))) {
+                writer.write("# Econoneeds balance snapshot taken " + new Date(snapshot.getCreatedAt()));
+                writer.newLine();
+                writer.write("uuid,balance");
+                writer.newLine();
+
+                snapshot.forEach((uuid, balance) -> {
+                    try {
+                        writer.write(uuid.toString());
+                        writer.write(',');
+                        writer.write(Double.toString(balance));
+                        writer.newLine();
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | UncheckedIOException e) {
+            // Partial files do not match the backup name pattern and would never be rotated out
+            tempFile.delete();
+            throw e;
+        }
+        return count[0];
+    }
+
+    /**
+     * Get the CSV an unfinished import is reading, so rotation never deletes
+     * a backup that is still being restored. Must be called on the main thread.
+     *
+     * @return The file, or null if no CSV import is in progress
+     */
+    private File getUnfinishedRestore() {
+        ConfigurationSection state = EconomyManager.getInstance().getJobState("import");
+        if (!state.contains("cursor") || !state.getString("format", "").equals("csv")) {
+            return null;
+        }
+        return new File(state.getString("path", ""));
+    }
+
+    /**
+     * Delete backups beyond the configured count or older than the retention period.
+     *
+     * @param pinned A file that must be kept regardless, or null
+     */
+    private void rotate(File pinned) {
+        List<String> backups = listBackups();
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+
+        for (int i = 0; i < backups.size(); i++) {
+            File file = new File(backupFolder, backups.get(i));
+            if (pinned != null && file.getAbsoluteFile().equals(pinned.getAbsoluteFile())) {
+                continue;
+            }
+            if (i >= keep || (retentionMillis > 0 && file.lastModified() < cutoff)) {
+                if (!file.delete()) {
+                    plugin.getLogger().warning("Could not delete old backup " + file.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Backup file names, newest first
+     */
+    public List<String> listBackups() {
+        String[] names = backupFolder.list((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        if (names == null) {
+            return Collections.emptyList();
+        }
+        List<String> backups = new ArrayList<>(Arrays.asList(names));
+        backups.sort(Collections.reverseOrder());
+        return backups;
+    }
+
+    // ==================== RESTORE ====================
+
+    /**
+     * Restore one account's balance from a backup. The file is scanned off the main thread.
+     *
+     * @return An error message, or null if the restore started
+     */
+    public String restoreAccount(CommandSender sender, String backup, UUID uuid, String playerName) {
+        File file = resolve(backup);
+        if (file == null) {
+            return "Backup not found: " + backup;
+        }
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                Double balance = find(file, uuid);
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    if (balance == null) {
+                        sender.sendMessage("§c" + playerName + " has no balance in " + backup);
+                        return;
+                    }
+                    EconomyManager.getInstance().setBalance(uuid, balance);
+                    sender.sendMessage("§aRestored §f" + playerName + "§a's balance to "
+                            + EconomyManager.formatCurrency(balance) + " from " + backup);
+                });
+            } catch (IOException e) {
+                sendResult(sender, "§cCould not read backup: " + e.getMessage());
+            }
+        });
+        return null;
+    }
+
+    /**
+     * Restore every account in a backup. A fresh backup is taken first, then
+     * the file is streamed in through the importer. Accounts created after
+     * the backup was taken keep their current balance. Refused while a
+     * different import is paused, since starting this one would discard its progress.
+     *
+     * @return An error message, or null if the restore started
+     */
+    public String restoreAll(CommandSender sender, String backup) {
+        File file = resolve(backup);
+        if (file == null) {
+            return "Backup not found: " + backup;
+        }
+        if (EconomyImporter.getInstance().isRunning()) {
+            return "An import is already running.";
+        }
+        ConfigurationSection importState = EconomyManager.getInstance().getJobState("import");
+        if (importState.contains("cursor") && !(importState.getString("format", "").equals("csv")
+                && importState.getString("path", "").equals(file.getPath()))) {
+            return "An import of " + importState.getString("path") + " is paused. Finish it with /eco import resume first.";
+        }
+
+        if (!createBackup(sender, file)) {
+            return "A backup is being written, try again shortly.";
+        }
+        return EconomyImporter.getInstance().start(sender, "csv", file.getPath());
+    }
+
+    private File resolve(String backup) {
+        if (!backup.startsWith(PREFIX) || !backup.endsWith(SUFFIX) || backup.contains("/")
+                || backup.contains("\\")) {
+            return null;
+        }
+        File file = new File(backupFolder, backup);
+        return file.isFile() ? file : null;
+    }
+
+    private static Double find(File file, UUID uuid) throws IOException {
+        String prefix = uuid.toString() + ",";
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file), 1 << 16), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(prefix)) {
+                    return Double.parseDouble(line.substring(prefix.length()));
+                }
+            }
+        }
+        return null;
+    }
+
+    private void sendResult(CommandSender sender, String message) {
+        if (sender == null) {
+            plugin.getLogger().info(message.replaceAll("§.", ""));
+            return;
+        }
+        plugin.getServer().getScheduler().runTask(plugin, () -> sender.sendMessage(message));
+    }
+}
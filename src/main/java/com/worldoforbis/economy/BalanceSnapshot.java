@@ -0,0 +1,70 @@
+package com.worldoforbis.economy;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Copy-on-write view of every balance at the moment it was opened.
+ *
+ * Nothing is copied up front. While the snapshot is open, the first write
+ * to each account stores its previous balance here before the live map
+ * changes. Readers check the live value first and the preserved value
+ * second, so a write racing with the read is always resolved to the
+ * pre-image.
+ */
+final class BalanceSnapshot {
+
+    // Marks accounts that did not exist when the snapshot was opened
+    private static final Double ABSENT = Double.NaN;
+
+    private final Map<UUID, Double> live;
+    private final Map<UUID, Double> preserved = new ConcurrentHashMap<>();
+    private final long createdAt = System.currentTimeMillis();
+
+    BalanceSnapshot(Map<UUID, Double> live) {
+        this.live = live;
+    }
+
+    /**
+     * Called by the economy before an account is written.
+     */
+    void preserve(UUID uuid, Double previous) {
+        preserved.putIfAbsent(uuid, previous != null ? previous : ABSENT);
+    }
+
+    /**
+     * Get one account's balance as it was when the snapshot was opened.
+     *
+     * @return The balance, or null if the account did not exist yet
+     */
+    Double get(UUID uuid) {
+        Double value = live.get(uuid);
+        Double original = preserved.get(uuid);
+        if (original != null) {
+            value = original;
+        }
+        return value == null || value.isNaN() ? null : value;
+    }
+
+    /**
+     * Visit every account as it was when the snapshot was opened.
+     */
+    void forEach(BiConsumer<UUID, Double> action) {
+        for (Map.Entry<UUID, Double> entry : live.entrySet()) {
+            Double value = entry.getValue();
+            Double original = preserved.get(entry.getKey());
+            if (original != null) {
+                value = original;
+            }
+            if (!value.isNaN()) {
+                action.accept(entry.getKey(), value);
+            }
+        }
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,438 @@
+package com.worldoforbis.economy;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports balances from other economy plugins' data.
+ *
+ * A reader thread pulls raw units (EssentialsX userdata files or CSV lines)
+ * from the source in batches and hands each batch to a worker pool for
+ * parsing. Parsed batches wait in a small bounded queue, in source order,
+ * so only a few batches are ever held in memory. The main thread applies
+ * finished batches under a per-tick time budget and checkpoints the number
+ * of units committed in economy.yml from a background save, so an
+ * interrupted import can resume.
+ *
+ * Everything a run touches lives in its own {@link Job}, so a reader that
+ * is still winding down after a cancel can never feed a later run.
+ */
+public class EconomyImporter {
+
+    private static final String JOB = "import";
+    private static final long SAVE_INTERVAL_MILLIS = 30_000L;
+    private static final long PROGRESS_INTERVAL_MILLIS = 5_000L;
+
+    private static EconomyImporter instance;
+    private final JavaPlugin plugin;
+
+    private final int threads;
+    private final int batchSize;
+    private final long tickBudgetNanos;
+
+    private Job job;
+
+    private EconomyImporter(JavaPlugin plugin) {
+        this.plugin = plugin;
+        FileConfiguration config = plugin.getConfig();
+        threads = Math.max(1, config.getInt("import.threads", 4));
+        batchSize = Math.max(1, config.getInt("import.batch-size", 500));
+        tickBudgetNanos = Math.max(1L, config.getLong("import.tick-budget-ms", 10L)) * 1_000_000L;
+    }
+
+    public static void initialize(JavaPlugin plugin) {
+        if (instance == null) {
+            instance = new EconomyImporter(plugin);
+            if (EconomyManager.getInstance().getJobState(JOB).contains("cursor")) {
+                plugin.getLogger().info("An interrupted import can be continued with /eco import resume");
+            }
+        }
+    }
+
+    public static EconomyImporter getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("EconomyImporter has not been initialized!");
+        }
+        return instance;
+    }
+
+    public boolean isRunning() {
+        return job != null;
+    }
+
+    /**
+     * Start a new import, or continue the previous one if it used the same source.
+     *
+     * @param sender Who receives progress messages
+     * @param format "essentials" or "csv"
+     * @param path   The userdata directory or CSV file
+     * @return An error message, or null if the import started
+     */
+    public String start(CommandSender sender, String format, String path) {
+        if (isRunning()) {
+            return "An import is already running.";
+        }
+        if (!format.equals("essentials") && !format.equals("csv")) {
+            return "Unknown import format: " + format;
+        }
+
+        File source = new File(path);
+        if (format.equals("essentials") ? !source.isDirectory() : !source.isFile()) {
+            return "Not found: " + source.getPath();
+        }
+
+        ConfigurationSection state = EconomyManager.getInstance().getJobState(JOB);
+        boolean sameSource = format.equals(state.getString("format")) && source.getPath().equals(state.getString("path"));
+        if (!sameSource || !state.contains("cursor")) {
+            state.set("format", format);
+            state.set("path", source.getPath());
+            state.set("cursor", 0L);
+            state.set("imported", 0L);
+        }
+
+        launch(sender, format, source, state.getLong("cursor"));
+        return null;
+    }
+
+    /**
+     * Continue an interrupted import.
+     *
+     * @return An error message, or null if the import resumed
+     */
+    public String resume(CommandSender sender) {
+        ConfigurationSection state = EconomyManager.getInstance().getJobState(JOB);
+        if (!state.contains("cursor")) {
+            return "There is no interrupted import to resume.";
+        }
+        return start(sender, state.getString("format", ""), state.getString("path", ""));
+    }
+
+    public void cancel() {
+        if (!isRunning()) {
+            return;
+        }
+        stop();
+        // On shutdown the plugin saves synchronously right after this
+        if (plugin.isEnabled()) {
+            EconomyManager.getInstance().saveAsync(null);
+        }
+    }
+
+    private void stop() {
+        job.cancelled = true;
+        job.applyTask.cancel();
+        job.workers.shutdownNow();
+        job.pending.clear();
+        job = null;
+    }
+
+    public String getStatus() {
+        if (!isRunning()) {
+            ConfigurationSection state = EconomyManager.getInstance().getJobState(JOB);
+            if (state.contains("cursor")) {
+                return "Import of " + state.getString("path") + " paused after " + state.getLong("cursor")
+                        + " entries. Use /eco import resume to continue.";
+            }
+            return "No import is running.";
+        }
+        return progressMessage();
+    }
+
+    // ==================== PIPELINE ====================
+
+    private void launch(CommandSender sender, String format, File source, long skip) {
+        Job job = new Job(sender, threads);
+        job.imported = EconomyManager.getInstance().getJobState(JOB).getLong("imported", 0L);
+        this.job = job;
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> read(job, format, source, skip));
+        job.applyTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> apply(job), 1L, 1L);
+
+        sender.sendMessage("§aImporting " + format + " data from §f" + source.getPath()
+                + (skip > 0 ? "§a, resuming after " + skip + " entries" : ""));
+    }
+
+    /**
+     * Reader thread: split the source into batches and queue them for parsing.
+     * Blocks when enough parsed batches are waiting, which bounds memory use.
+     */
+    private void read(Job job, String format, File source, long skip) {
+        try {
+            if (format.equals("essentials")) {
+                // Sorted so the cursor means the same thing after a restart
+                String[] names = source.list((dir, name) -> name.endsWith(".yml"));
+                names = names != null ? names : new String[0];
+                Arrays.sort(names);
+                job.total = names.length;
+
+                for (int i = (int) Math.min(skip, names.length); i < names.length && !job.cancelled; i += batchSize) {
+                    List<String> units = Arrays.asList(names).subList(i, Math.min(names.length, i + batchSize));
+                    submit(job, units, unit -> parseEssentials(new File(source, unit)));
+                }
+            } else {
+                try (BufferedReader reader = openCsv(source)) {
+                    long lines = 0;
+                    while (lines < skip && !job.cancelled && reader.readLine() != null) {
+                        lines++;
+                    }
+
+                    List<String> units = new ArrayList<>(batchSize);
+                    String line;
+                    while (!job.cancelled && (line = reader.readLine()) != null) {
+                        units.add(line);
+                        if (units.size() == batchSize) {
+                            submit(job, units, EconomyImporter::parseCsv);
+                            units = new ArrayList<>(batchSize);
+                        }
+                    }
+                    if (!units.isEmpty() && !job.cancelled) {
+                        submit(job, units, EconomyImporter::parseCsv);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            job.readerError = e.getMessage();
+        } catch (InterruptedException | RejectedExecutionException e) {
+            // Cancelled while waiting for queue space
+        } finally {
+            job.readerDone = true;
+        }
+    }
+
+    private void submit(Job job, List<String> units, Parser parser) throws InterruptedException {
+        if (job.cancelled) {
+            return;
+        }
+        Future<Batch> future = job.workers.submit(() -> {
+            Batch batch = new Batch(units.size());
+            for (String unit : units) {
+                try {
+                    Entry entry = parser.parse(unit);
+                    if (entry != null) {
+                        batch.entries.add(entry);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    batch.skipped++;
+                }
+            }
+            return batch;
+        });
+
+        // Wait for queue space, giving up if the job is cancelled meanwhile
+        while (!job.pending.offer(future, 100L, TimeUnit.MILLISECONDS)) {
+            if (job.cancelled) {
+                future.cancel(true);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Main thread: apply parsed batches in order until the tick budget runs out.
+     */
+    private void apply(Job job) {
+        EconomyManager economy = EconomyManager.getInstance();
+        ConfigurationSection state = economy.getJobState(JOB);
+        long deadline = System.nanoTime() + tickBudgetNanos;
+
+        Future<Batch> head;
+        while (System.nanoTime() < deadline && (head = job.pending.peek()) != null && head.isDone()) {
+            job.pending.poll();
+            Batch batch;
+            try {
+                batch = head.get();
+            } catch (ExecutionException | InterruptedException e) {
+                plugin.getLogger().log(Level.SEVERE, "Import batch failed", e);
+                finish(job, "§cImport failed: " + e.getMessage());
+                return;
+            }
+
+            for (Entry entry : batch.entries) {
+                economy.writeBalance(entry.uuid, entry.balance);
+            }
+            job.imported += batch.entries.size();
+            job.skipped += batch.skipped;
+            state.set("cursor", state.getLong("cursor") + batch.units);
+            state.set("imported", job.imported);
+        }
+
+        if (job.readerDone && job.pending.isEmpty()) {
+            if (job.readerError != null) {
+                finish(job, "§cImport stopped: " + job.readerError + ". Use /eco import resume to retry.");
+            } else {
+                state.set("cursor", null);
+                finish(job, "§aImport complete: §f" + job.imported + "§a accounts imported"
+                        + (job.skipped > 0 ? ", §f" + job.skipped + "§a unreadable entries skipped." : "."));
+            }
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - job.lastSave >= SAVE_INTERVAL_MILLIS && !job.checkpointing) {
+            job.checkpointing = true;
+            economy.saveAsync(saved -> job.checkpointing = false);
+            job.lastSave = now;
+        }
+        if (now - job.lastProgress >= PROGRESS_INTERVAL_MILLIS) {
+            job.sender.sendMessage("§7" + progressMessage());
+            job.lastProgress = now;
+        }
+    }
+
+    private void finish(Job job, String message) {
+        stop();
+        EconomyManager.getInstance().saveAsync(null);
+        job.sender.sendMessage(message);
+        plugin.getLogger().info(message.replaceAll("§.", ""));
+    }
+
+    private String progressMessage() {
+        long cursor = EconomyManager.getInstance().getJobState(JOB).getLong("cursor");
+        long total = job.total;
+        String percent = total > 0 ? String.format(" (%.1f%%)", 100.0 * cursor / total) : "";
+        return "Import progress: " + cursor + (total > 0 ? "/" + total : "") + " entries read" + percent + ", "
+                + job.imported + " accounts imported";
+    }
+
+    // ==================== PARSERS ====================
+
+    /**
+     * Open a CSV file, decompressing it if it is gzipped, as backups are.
+     */
+    private static BufferedReader openCsv(File file) throws IOException {
+        InputStream in = Files.newInputStream(file.toPath());
+        if (file.getName().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 1 << 16);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse an EssentialsX userdata file named after the player's UUID.
+     * Only the top-level money key is read, which avoids building a full YAML tree.
+     */
+    private static Entry parseEssentials(File file) throws IOException {
+        String name = file.getName();
+        UUID uuid = UUID.fromString(name.substring(0, name.length() - 4));
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("money:")) {
+                    String value = line.substring(6).trim().replace("'", "").replace("\"", "");
+                    return new Entry(uuid, roundBalance(Double.parseDouble(value)));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parse a "uuid,balance" CSV line. Blank lines, comments and headers are skipped.
+     */
+    private static Entry parseCsv(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+
+        int comma = trimmed.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("Missing balance: " + line);
+        }
+
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(trimmed.substring(0, comma).trim());
+        } catch (IllegalArgumentException e) {
+            // Header row
+            return null;
+        }
+        return new Entry(uuid, roundBalance(Double.parseDouble(trimmed.substring(comma + 1).trim())));
+    }
+
+    private static double roundBalance(double balance) {
+        return Math.round(balance * 100.0) / 100.0;
+    }
+
+    @FunctionalInterface
+    private interface Parser {
+        Entry parse(String unit) throws IOException;
+    }
+
+    private static final class Entry {
+        private final UUID uuid;
+        private final double balance;
+
+        private Entry(UUID uuid, double balance) {
+            this.uuid = uuid;
+            this.balance = balance;
+        }
+    }
+
+    /**
+     * The state of one import run. The reader and workers only ever see their own job.
+     */
+    private static final class Job {
+        private final CommandSender sender;
+        private final ExecutorService workers;
+        private final BlockingQueue<Future<Batch>> pending;
+        private BukkitTask applyTask;
+
+        private volatile boolean cancelled;
+        private volatile boolean readerDone;
+        private volatile String readerError;
+        private volatile long total = -1;
+
+        // Main thread only
+        private long imported;
+        private long skipped;
+        private long lastSave;
+        private long lastProgress;
+        private boolean checkpointing;
+
+        private Job(CommandSender sender, int threads) {
+            this.sender = sender;
+            this.workers = Executors.newFixedThreadPool(threads);
+            this.pending = new ArrayBlockingQueue<>(threads * 2);
+            this.lastSave = System.currentTimeMillis();
+            this.lastProgress = lastSave;
+        }
+    }
+
+    private static final class Batch {
+        private final int units;
+        private final List<Entry> entries;
+        private int skipped;
+
+        private Batch(int units) {
+            this.units = units;
+            this.entries = new ArrayList<>(units);
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package com.worldoforbis.economy;
 
+import com.worldoforbis.events.BalanceChangeBus;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 
 /**
  * Manages economy data storage using YAML files.
  * Stores currency balances per player UUID.
+ *
+ * Balances are mirrored in a concurrent map so they can be read, and
+ * snapshotted for backups and background saves, off the main thread.
  */
 public class EconomyManager {
 
@@ -21,6 +33,16 @@ public class EconomyManager {
     private final JavaPlugin plugin;
     private File dataFile;
     private FileConfiguration dataConfig;
+    private final EconomyStats stats = new EconomyStats();
+    private final Map<UUID, Double> balances = new ConcurrentHashMap<>();
+    // Accounts in file order; guarded by itself
+    private final List<UUID> accountOrder = new ArrayList<>();
+    private final List<BalanceSnapshot> openSnapshots = new CopyOnWriteArrayList<>();
+
+    // Saves are numbered so an older background save never replaces a newer file
+    private final AtomicLong saveSequence = new AtomicLong();
+    private final Object saveLock = new Object();
+    private long lastWritten;
     private static final DecimalFormat CURRENCY_FORMAT = new DecimalFormat("#,##0.00");
 
     private EconomyManager(JavaPlugin plugin) {
@@ -47,6 +69,7 @@ public class EconomyManager {
         }
 
         dataFile = new File(plugin.getDataFolder(), "economy.yml");
+        deleteStaleTempFiles();
         if (!dataFile.exists()) {
             try {
                 dataFile.createNewFile();
@@ -57,31 +80,202 @@ public class EconomyManager {
         }
 
         dataConfig = YamlConfiguration.loadConfiguration(dataFile);
+        loadBalances();
     }
 
+    /**
+     * Save to a temporary file first and move it into place, so a crash
+     * mid-save never leaves a truncated economy.yml behind.
+     */
     public void save() {
+        write(dataConfig, saveSequence.incrementAndGet());
+    }
+
+    /**
+     * Save on a background thread. Must be called on the main thread.
+     *
+     * The data is captured here through a balance snapshot, which costs O(1)
+     * however many accounts exist, and written out by an async task. Writes
+     * made after this call are left for the next save.
+     *
+     * @param callback Called on the main thread with whether the file was written, or null
+     */
+    public void saveAsync(Consumer<Boolean> callback) {
+        long sequence = saveSequence.incrementAndGet();
+        BalanceSnapshot snapshot = openSnapshot();
+        int accountCount;
+        synchronized (accountOrder) {
+            accountCount = accountOrder.size();
+        }
+
+        // Everything but the balances is small, so copy it now
+        Map<String, Object> other = new LinkedHashMap<>();
+        for (String key : dataConfig.getKeys(false)) {
+            if (key.equals("players")) {
+                continue;
+            }
+            ConfigurationSection section = dataConfig.getConfigurationSection(key);
+            if (section == null) {
+                other.put(key, dataConfig.get(key));
+                continue;
+            }
+            for (Map.Entry<String, Object> value : section.getValues(true).entrySet()) {
+                if (!(value.getValue() instanceof ConfigurationSection)) {
+                    other.put(key + "." + value.getKey(), value.getValue());
+                }
+            }
+        }
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            boolean saved;
+            try {
+                List<UUID> accounts;
+                synchronized (accountOrder) {
+                    accounts = new ArrayList<>(accountOrder.subList(0, Math.min(accountCount, accountOrder.size())));
+                }
+
+                YamlConfiguration config = new YamlConfiguration();
+                for (UUID uuid : accounts) {
+                    Double balance = snapshot.get(uuid);
+                    if (balance != null) {
+                        config.set("players." + uuid.toString() + ".balance", balance);
+                    }
+                }
+                other.forEach(config::set);
+                saved = write(config, sequence);
+            } catch (RuntimeException e) {
+                // Callers wait for the callback before saving again, so always report back
+                plugin.getLogger().log(Level.SEVERE, "Could not save economy.yml", e);
+                saved = false;
+            } finally {
+                closeSnapshot(snapshot);
+            }
+
+            if (callback != null) {
+                boolean result = saved;
+                plugin.getServer().getScheduler().runTask(plugin, () -> callback.accept(result));
+            }
+        });
+    }
+
+    private boolean write(FileConfiguration config, long sequence) {
+        File tempFile = new File(dataFile.getParentFile(), dataFile.getName() + "." + sequence + ".tmp");
         try {
-            dataConfig.save(dataFile);
+            config.save(tempFile);
+            synchronized (saveLock) {
+                if (sequence < lastWritten) {
+                    // A newer save already landed
+                    Files.delete(tempFile.toPath());
+                    return true;
+                }
+                try {
+                    Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                lastWritten = sequence;
+            }
+            return true;
         } catch (IOException e) {
             plugin.getLogger().severe("Could not save economy.yml: " + e.getMessage());
+            tempFile.delete();
+            return false;
+        }
+    }
+
+    /**
+     * Remove temporary files left behind by a save that was interrupted by a crash.
+     */
+    private void deleteStaleTempFiles() {
+        String prefix = dataFile.getName() + ".";
+        File[] stale = dataFile.getParentFile().listFiles((dir, name) -> name.startsWith(prefix)
+                && name.endsWith(".tmp"));
+        if (stale != null) {
+            for (File file : stale) {
+                file.delete();
+            }
         }
     }
 
     public void reload() {
         dataConfig = YamlConfiguration.loadConfiguration(dataFile);
+        loadBalances();
+    }
+
+    private void loadBalances() {
+        balances.clear();
+        stats.reset();
+        List<UUID> order = new ArrayList<>();
+        ConfigurationSection players = dataConfig.getConfigurationSection("players");
+        if (players != null) {
+            for (String key : players.getKeys(false)) {
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(key);
+                } catch (IllegalArgumentException e) {
+                    // Dropped so the stored order matches the account list
+                    plugin.getLogger().warning("Removing invalid account key from economy.yml: " + key);
+                    players.set(key, null);
+                    continue;
+                }
+                double balance = players.getDouble(key + ".balance", 0.0);
+                balances.put(uuid, balance);
+                order.add(uuid);
+                stats.recordLoaded(balance);
+            }
+        }
+        synchronized (accountOrder) {
+            accountOrder.clear();
+            accountOrder.addAll(order);
+        }
+        stats.refresh();
+    }
+
+    public EconomyStats getStats() {
+        return stats;
     }
 
     // ==================== CURRENCY METHODS ====================
 
     public double getBalance(UUID uuid) {
-        return dataConfig.getDouble("players." + uuid.toString() + ".balance", 0.0);
+        Double balance = balances.get(uuid);
+        return balance != null ? balance : 0.0;
     }
 
     public void setBalance(UUID uuid, double amount) {
-        dataConfig.set("players." + uuid.toString() + ".balance", amount);
+        writeBalance(uuid, amount);
         save();
     }
 
+    /**
+     * Write a balance without saving the data file.
+     * Callers batching many writes must call {@link #save()} once done.
+     */
+    void writeBalance(UUID uuid, double amount) {
+        Double previous = balances.get(uuid);
+        double oldBalance = previous != null ? previous : 0.0;
+
+        // Preserve the pre-image before the live value changes
+        for (BalanceSnapshot snapshot : openSnapshots) {
+            snapshot.preserve(uuid, previous);
+        }
+
+        balances.put(uuid, amount);
+        if (previous == null) {
+            synchronized (accountOrder) {
+                accountOrder.add(uuid);
+            }
+        }
+        dataConfig.set("players." + uuid.toString() + ".balance", amount);
+        stats.recordWrite(previous != null, oldBalance, amount);
+
+        BalanceChangeBus bus = BalanceChangeBus.getInstance();
+        if (bus.hasListeners()) {
+            bus.publish(uuid, oldBalance, amount);
+        }
+    }
+
     public double addBalance(UUID uuid, double amount) {
         double newBalance = getBalance(uuid) + amount;
         setBalance(uuid, newBalance);
@@ -129,6 +323,51 @@ public class EconomyManager {
         return sorted.subList(0, Math.min(limit, sorted.size()));
     }
 
+    /**
+     * Get a copy of every account, in the order they are stored.
+     * New accounts are appended, so an index into this list stays valid across saves and restarts.
+     *
+     * @return List of player UUIDs
+     */
+    List<UUID> getAccountKeys() {
+        synchronized (accountOrder) {
+            return new ArrayList<>(accountOrder);
+        }
+    }
+
+    /**
+     * Get the persisted state section of a background job, creating it if missing.
+     * Job state lives in economy.yml so it is always saved together with the balances it describes.
+     *
+     * @param job The job name
+     * @return The job's state section
+     */
+    ConfigurationSection getJobState(String job) {
+        ConfigurationSection section = dataConfig.getConfigurationSection("jobs." + job);
+        if (section == null) {
+            section = dataConfig.createSection("jobs." + job);
+        }
+        return section;
+    }
+
+    /**
+     * Open a point-in-time snapshot of every balance. Must be called on the
+     * main thread. Opening is O(1); the snapshot stays consistent while
+     * writes continue and may be read from any thread until it is closed.
+     * Every open snapshot adds a little work to each write, so close it promptly.
+     *
+     * @return The snapshot
+     */
+    BalanceSnapshot openSnapshot() {
+        BalanceSnapshot snapshot = new BalanceSnapshot(balances);
+        openSnapshots.add(snapshot);
+        return snapshot;
+    }
+
+    void closeSnapshot(BalanceSnapshot snapshot) {
+        openSnapshots.remove(snapshot);
+    }
+
     public static String getPlayerName(UUID uuid) {
         OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
         String name = player.getName();
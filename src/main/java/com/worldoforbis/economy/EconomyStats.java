@@ -0,0 +1,265 @@
+package com.worldoforbis.economy;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Running aggregates over every balance, updated on each write.
+ *
+ * Supply, account count and sum of squares are exact. The balance
+ * distribution is tracked in a log-bucketed histogram where each bucket
+ * spans 2% of its lower bound, so a write moves one count between two
+ * buckets. Quantiles and the Gini coefficient are derived from the
+ * histogram by {@link #refresh()}, and all getters are O(1).
+ *
+ * Sell revenue and transfer volume count from server start.
+ */
+public class EconomyStats {
+
+    private static final double MIN_VALUE = 0.01;
+    private static final double GAMMA = 1.02;
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int BUCKETS = 2048;
+    private static final int TOP_MATERIALS = 5;
+    private static final double[] QUANTILES = { 0.10, 0.25, 0.50, 0.75, 0.90, 0.99 };
+
+    private long accountCount;
+    private double totalSupply;
+    private double sumOfSquares;
+    private final long[] bucketCounts = new long[BUCKETS];
+    private final double[] bucketSums = new double[BUCKETS];
+
+    private final double[] salesByMaterial = new double[Material.values().length];
+    private double totalSales;
+    private double transferVolume;
+    private long transferCount;
+    private final long startedAt = System.currentTimeMillis();
+
+    private boolean dirty = true;
+    private double[] quantiles = new double[QUANTILES.length];
+    private double gini;
+    private List<Material> topMaterials = Collections.emptyList();
+    private long refreshedAt;
+
+    /**
+     * Clear all balance aggregates before rebuilding them from storage.
+     * Sales and transfer totals are kept.
+     */
+    void reset() {
+        accountCount = 0;
+        totalSupply = 0;
+        sumOfSquares = 0;
+        Arrays.fill(bucketCounts, 0);
+        Arrays.fill(bucketSums, 0);
+        dirty = true;
+    }
+
+    /**
+     * Record a balance write.
+     *
+     * @param existed    Whether the account existed before the write
+     * @param oldBalance The balance before the write, ignored for new accounts
+     * @param newBalance The balance after the write
+     */
+    void recordWrite(boolean existed, double oldBalance, double newBalance) {
+        if (existed) {
+            remove(oldBalance);
+        } else {
+            accountCount++;
+        }
+        add(newBalance);
+        dirty = true;
+    }
+
+    /**
+     * Record an account loaded from storage.
+     */
+    void recordLoaded(double balance) {
+        accountCount++;
+        add(balance);
+    }
+
+    private void add(double balance) {
+        totalSupply += balance;
+        sumOfSquares += balance * balance;
+        int bucket = bucketOf(balance);
+        bucketCounts[bucket]++;
+        bucketSums[bucket] += balance;
+    }
+
+    private void remove(double balance) {
+        totalSupply -= balance;
+        sumOfSquares -= balance * balance;
+        int bucket = bucketOf(balance);
+        bucketCounts[bucket]--;
+        bucketSums[bucket] -= balance;
+    }
+
+    private static int bucketOf(double balance) {
+        if (balance < MIN_VALUE) {
+            return 0;
+        }
+        int bucket = 1 + (int) (Math.log(balance / MIN_VALUE) / LOG_GAMMA);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    public void recordSale(Material material, double revenue) {
+        salesByMaterial[material.ordinal()] += revenue;
+        totalSales += revenue;
+        dirty = true;
+    }
+
+    public void recordTransfer(double amount) {
+        transferVolume += amount;
+        transferCount++;
+    }
+
+    /**
+     * Recompute quantiles, the Gini coefficient and top selling materials.
+     * Costs O(buckets + materials) and is skipped when nothing changed.
+     */
+    public void refresh() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        refreshedAt = System.currentTimeMillis();
+
+        long count = 0;
+        for (long bucketCount : bucketCounts) {
+            count += bucketCount;
+        }
+
+        double[] newQuantiles = new double[QUANTILES.length];
+        double positiveTotal = 0;
+        for (double bucketSum : bucketSums) {
+            positiveTotal += Math.max(0, bucketSum);
+        }
+
+        // Walk buckets in ascending order for quantiles and the Lorenz curve
+        int q = 0;
+        long cumulative = 0;
+        double lorenz = 0;
+        double giniArea = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucketCount = bucketCounts[i];
+            if (bucketCount <= 0) {
+                continue;
+            }
+            cumulative += bucketCount;
+            while (q < QUANTILES.length && cumulative > QUANTILES[q] * (count - 1)) {
+                newQuantiles[q++] = bucketSums[i] / bucketCount;
+            }
+
+            if (positiveTotal > 0) {
+                double nextLorenz = lorenz + Math.max(0, bucketSums[i]) / positiveTotal;
+                giniArea += ((double) bucketCount / count) * (lorenz + nextLorenz);
+                lorenz = nextLorenz;
+            }
+        }
+
+        quantiles = newQuantiles;
+        gini = positiveTotal > 0 ? Math.max(0, 1 - giniArea) : 0;
+        topMaterials = computeTopMaterials();
+    }
+
+    private List<Material> computeTopMaterials() {
+        Material[] materials = Material.values();
+        List<Material> top = new ArrayList<>(TOP_MATERIALS + 1);
+        for (int i = 0; i < salesByMaterial.length; i++) {
+            if (salesByMaterial[i] <= 0) {
+                continue;
+            }
+            int pos = top.size();
+            while (pos > 0 && salesByMaterial[top.get(pos - 1).ordinal()] < salesByMaterial[i]) {
+                pos--;
+            }
+            if (pos < TOP_MATERIALS) {
+                top.add(pos, materials[i]);
+                if (top.size() > TOP_MATERIALS) {
+                    top.remove(TOP_MATERIALS);
+                }
+            }
+        }
+        return Collections.unmodifiableList(top);
+    }
+
+    // ==================== GETTERS ====================
+
+    public long getAccountCount() {
+        return accountCount;
+    }
+
+    public double getTotalSupply() {
+        return totalSupply;
+    }
+
+    public double getMean() {
+        return accountCount > 0 ? totalSupply / accountCount : 0;
+    }
+
+    public double getStandardDeviation() {
+        if (accountCount == 0) {
+            return 0;
+        }
+        double mean = getMean();
+        return Math.sqrt(Math.max(0, sumOfSquares / accountCount - mean * mean));
+    }
+
+    /**
+     * Get an approximate quantile as of the last refresh.
+     *
+     * @param index Index into 10th, 25th, 50th, 75th, 90th and 99th percentiles
+     * @return The approximate balance at that quantile
+     */
+    public double getQuantile(int index) {
+        return quantiles[index];
+    }
+
+    public double getMedian() {
+        return quantiles[2];
+    }
+
+    public double getGini() {
+        return gini;
+    }
+
+    public double getSales(Material material) {
+        return salesByMaterial[material.ordinal()];
+    }
+
+    public double getTotalSales() {
+        return totalSales;
+    }
+
+    public List<Material> getTopSellingMaterials() {
+        return topMaterials;
+    }
+
+    public double getTransferVolume() {
+        return transferVolume;
+    }
+
+    public long getTransferCount() {
+        return transferCount;
+    }
+
+    /**
+     * Velocity of money: transfer volume since start relative to the current supply.
+     */
+    public double getVelocity() {
+        return totalSupply > 0 ? transferVolume / totalSupply : 0;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getRefreshedAt() {
+        return refreshedAt;
+    }
+}
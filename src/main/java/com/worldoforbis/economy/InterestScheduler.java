@@ -0,0 +1,196 @@
+package com.worldoforbis.economy;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Periodically applies interest and wealth tax to every account.
+ *
+ * A run walks the account list in bounded chunks, one chunk per tick, and
+ * stops each tick once the configured time budget is used up. Balances are
+ * written in memory and saved as a single batch off the main thread when
+ * the run finishes; the run only counts as done once that save succeeds.
+ * The cursor is stored next to the balances in economy.yml, so a run
+ * interrupted by a restart continues where the last save left it.
+ */
+public class InterestScheduler {
+
+    private static final String JOB = "interest";
+    private static final long CHECK_PERIOD_TICKS = 1200L;
+
+    private static InterestScheduler instance;
+    private final JavaPlugin plugin;
+
+    private long intervalMillis;
+    private int chunkSize;
+    private long tickBudgetNanos;
+    private double[] thresholds;
+    private double[] rates;
+
+    private BukkitTask runTask;
+    private boolean saving;
+    private List<UUID> accounts;
+
+    private InterestScheduler(JavaPlugin plugin) {
+        this.plugin = plugin;
+        loadSettings();
+    }
+
+    public static void initialize(JavaPlugin plugin) {
+        if (instance == null) {
+            instance = new InterestScheduler(plugin);
+            instance.start();
+        }
+    }
+
+    public static InterestScheduler getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("InterestScheduler has not been initialized!");
+        }
+        return instance;
+    }
+
+    private void loadSettings() {
+        FileConfiguration config = plugin.getConfig();
+        intervalMillis = Math.max(1L, config.getLong("interest.interval-minutes", 1440L)) * 60_000L;
+        chunkSize = Math.max(1, config.getInt("interest.chunk-size", 2000));
+        tickBudgetNanos = Math.max(1L, config.getLong("interest.tick-budget-ms", 5L)) * 1_000_000L;
+
+        List<double[]> tiers = new ArrayList<>();
+        for (Map<?, ?> tier : config.getMapList("interest.tiers")) {
+            try {
+                double threshold = Double.parseDouble(String.valueOf(tier.get("threshold")));
+                double rate = Double.parseDouble(String.valueOf(tier.get("rate")));
+                tiers.add(new double[] { threshold, rate });
+            } catch (NumberFormatException e) {
+                plugin.getLogger().warning("Ignoring invalid interest tier: " + tier);
+            }
+        }
+        tiers.sort((a, b) -> Double.compare(a[0], b[0]));
+
+        thresholds = new double[tiers.size()];
+        rates = new double[tiers.size()];
+        for (int i = 0; i < tiers.size(); i++) {
+            thresholds[i] = tiers.get(i)[0];
+            rates[i] = tiers.get(i)[1];
+        }
+    }
+
+    private void start() {
+        if (!plugin.getConfig().getBoolean("interest.enabled", false) || thresholds.length == 0) {
+            return;
+        }
+
+        // Resume a run that was interrupted by a restart
+        if (EconomyManager.getInstance().getJobState(JOB).contains("cursor")) {
+            plugin.getLogger().info("Resuming interrupted interest run");
+            beginRun();
+        }
+
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::checkDue, CHECK_PERIOD_TICKS,
+                CHECK_PERIOD_TICKS);
+    }
+
+    private void checkDue() {
+        if (isRunning()) {
+            return;
+        }
+
+        ConfigurationSection state = EconomyManager.getInstance().getJobState(JOB);
+        if (state.contains("cursor")) {
+            // The last run's final save failed, so finish it before starting another
+            beginRun();
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - state.getLong("last-run", 0L) < intervalMillis) {
+            return;
+        }
+
+        state.set("cursor", 0);
+        state.set("started", now);
+        beginRun();
+    }
+
+    private void beginRun() {
+        accounts = EconomyManager.getInstance().getAccountKeys();
+        runTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public boolean isRunning() {
+        return runTask != null || saving;
+    }
+
+    private void tick() {
+        EconomyManager economy = EconomyManager.getInstance();
+        ConfigurationSection state = economy.getJobState(JOB);
+        int cursor = state.getInt("cursor", 0);
+
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        int end = Math.min(accounts.size(), cursor + chunkSize);
+
+        while (cursor < end && System.nanoTime() < deadline) {
+            UUID uuid = accounts.get(cursor++);
+            double balance = economy.getBalance(uuid);
+            double delta = computeDelta(balance);
+            if (delta != 0) {
+                economy.writeBalance(uuid, balance + delta);
+            }
+        }
+
+        state.set("cursor", cursor);
+        if (cursor < accounts.size()) {
+            return;
+        }
+
+        // Run complete, persist everything in one save off the main thread
+        runTask.cancel();
+        runTask = null;
+        saving = true;
+        int accountCount = accounts.size();
+        accounts = null;
+
+        economy.saveAsync(saved -> {
+            saving = false;
+            if (!saved) {
+                plugin.getLogger().warning("Interest was applied but could not be saved, retrying shortly");
+                return;
+            }
+            state.set("cursor", null);
+            state.set("last-run", state.getLong("started", System.currentTimeMillis()));
+            plugin.getLogger().info("Applied interest to " + accountCount + " accounts");
+        });
+    }
+
+    /**
+     * Compute the adjustment for a balance using marginal tiers.
+     * Each tier's rate applies only to the part of the balance between its
+     * threshold and the next tier's threshold, like tax brackets.
+     *
+     * @param balance The current balance
+     * @return The amount to add, negative for tax, rounded to cents
+     */
+    double computeDelta(double balance) {
+        if (balance <= 0) {
+            return 0;
+        }
+
+        double delta = 0;
+        for (int i = 0; i < thresholds.length && balance > thresholds[i]; i++) {
+            double upper = i + 1 < thresholds.length ? Math.min(balance, thresholds[i + 1]) : balance;
+            delta += (upper - thresholds[i]) * rates[i];
+        }
+
+        // Never tax an account below zero
+        delta = Math.max(delta, -balance);
+        return Math.round(delta * 100.0) / 100.0;
+    }
+}
@@ -1,18 +1,27 @@
 package com.worldoforbis.economy;
 
 import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Manages item sell prices from a YAML config file.
  * Prices can be edited by server admins.
+ *
+ * Prices are served from a {@link PriceCatalog} built each time the file is loaded.
+ * Items with metadata are priced by an {@link ItemPriceResolver} applying the
+ * optional rules section on top of the material price.
  */
 public class ItemPriceManager {
 
@@ -20,6 +29,79 @@ public class ItemPriceManager {
     private final JavaPlugin plugin;
     private File pricesFile;
     private FileConfiguration pricesConfig;
+    private PriceCatalog catalog;
+    private ItemPriceResolver resolver;
+
+    // Default prices and their browsing categories, in prices.yml order
+    private static final Map<Material, Double> DEFAULT_PRICES = new LinkedHashMap<>();
+    private static final Map<Material, PriceCategory> DEFAULT_CATEGORIES = new EnumMap<>(Material.class);
+
+    static {
+        // Ores and Ingots
+        addDefault(PriceCategory.ORES, Material.DIAMOND, 100.0);
+        addDefault(PriceCategory.ORES, Material.EMERALD, 75.0);
+        addDefault(PriceCategory.ORES, Material.GOLD_INGOT, 50.0);
+        addDefault(PriceCategory.ORES, Material.IRON_INGOT, 25.0);
+        addDefault(PriceCategory.ORES, Material.COPPER_INGOT, 10.0);
+        addDefault(PriceCategory.ORES, Material.COAL, 5.0);
+        addDefault(PriceCategory.ORES, Material.LAPIS_LAZULI, 8.0);
+        addDefault(PriceCategory.ORES, Material.REDSTONE, 4.0);
+        addDefault(PriceCategory.ORES, Material.QUARTZ, 6.0);
+
+        // Raw Ores
+        addDefault(PriceCategory.RAW_ORES, Material.RAW_IRON, 15.0);
+        addDefault(PriceCategory.RAW_ORES, Material.RAW_GOLD, 30.0);
+        addDefault(PriceCategory.RAW_ORES, Material.RAW_COPPER, 5.0);
+
+        // Wood
+        addDefault(PriceCategory.WOOD, Material.OAK_LOG, 10.0);
+        addDefault(PriceCategory.WOOD, Material.SPRUCE_LOG, 10.0);
+        addDefault(PriceCategory.WOOD, Material.BIRCH_LOG, 10.0);
+        addDefault(PriceCategory.WOOD, Material.JUNGLE_LOG, 10.0);
+        addDefault(PriceCategory.WOOD, Material.ACACIA_LOG, 10.0);
+        addDefault(PriceCategory.WOOD, Material.DARK_OAK_LOG, 10.0);
+        addDefault(PriceCategory.WOOD, Material.MANGROVE_LOG, 10.0);
+        addDefault(PriceCategory.WOOD, Material.CHERRY_LOG, 12.0);
+
+        // Stone
+        addDefault(PriceCategory.STONE, Material.COBBLESTONE, 1.0);
+        addDefault(PriceCategory.STONE, Material.STONE, 2.0);
+        addDefault(PriceCategory.STONE, Material.GRANITE, 2.0);
+        addDefault(PriceCategory.STONE, Material.DIORITE, 2.0);
+        addDefault(PriceCategory.STONE, Material.ANDESITE, 2.0);
+        addDefault(PriceCategory.STONE, Material.DEEPSLATE, 3.0);
+
+        // Crops
+        addDefault(PriceCategory.CROPS, Material.WHEAT, 3.0);
+        addDefault(PriceCategory.CROPS, Material.CARROT, 4.0);
+        addDefault(PriceCategory.CROPS, Material.POTATO, 4.0);
+        addDefault(PriceCategory.CROPS, Material.BEETROOT, 3.0);
+        addDefault(PriceCategory.CROPS, Material.MELON_SLICE, 2.0);
+        addDefault(PriceCategory.CROPS, Material.PUMPKIN, 8.0);
+        addDefault(PriceCategory.CROPS, Material.SUGAR_CANE, 5.0);
+
+        // Mob Drops
+        addDefault(PriceCategory.MOB_DROPS, Material.LEATHER, 8.0);
+        addDefault(PriceCategory.MOB_DROPS, Material.BONE, 3.0);
+        addDefault(PriceCategory.MOB_DROPS, Material.STRING, 4.0);
+        addDefault(PriceCategory.MOB_DROPS, Material.ROTTEN_FLESH, 1.0);
+        addDefault(PriceCategory.MOB_DROPS, Material.SPIDER_EYE, 5.0);
+        addDefault(PriceCategory.MOB_DROPS, Material.GUNPOWDER, 10.0);
+        addDefault(PriceCategory.MOB_DROPS, Material.ENDER_PEARL, 25.0);
+        addDefault(PriceCategory.MOB_DROPS, Material.BLAZE_ROD, 30.0);
+        addDefault(PriceCategory.MOB_DROPS, Material.GHAST_TEAR, 50.0);
+
+        // Fish
+        addDefault(PriceCategory.FISH, Material.COD, 5.0);
+        addDefault(PriceCategory.FISH, Material.SALMON, 6.0);
+        addDefault(PriceCategory.FISH, Material.TROPICAL_FISH, 15.0);
+        addDefault(PriceCategory.FISH, Material.PUFFERFISH, 20.0);
+    }
+
+    private static void addDefault(PriceCategory category, Material material, double price) {
+        DEFAULT_PRICES.put(material, price);
+        DEFAULT_CATEGORIES.put(material, category);
+    }
 
     private ItemPriceManager(JavaPlugin plugin) {
         this.plugin = plugin;
@@ -56,78 +138,67 @@ public class ItemPriceManager {
         }
 
         pricesConfig = YamlConfiguration.loadConfiguration(pricesFile);
+        buildCatalog();
     }
 
-    private void createDefaults() {
-        pricesConfig = YamlConfiguration.loadConfiguration(pricesFile);
-
-        // Ores and Ingots
-        setDefaultPrice(Material.DIAMOND, 100.0);
-        setDefaultPrice(Material.EMERALD, 75.0);
-        setDefaultPrice(Material.GOLD_INGOT, 50.0);
-        setDefaultPrice(Material.IRON_INGOT, 25.0);
-        setDefaultPrice(Material.COPPER_INGOT, 10.0);
-        setDefaultPrice(Material.COAL, 5.0);
-        setDefaultPrice(Material.LAPIS_LAZULI, 8.0);
-        setDefaultPrice(Material.REDSTONE, 4.0);
-        setDefaultPrice(Material.QUARTZ, 6.0);
-
-        // Raw Ores
-        setDefaultPrice(Material.RAW_IRON, 15.0);
-        setDefaultPrice(Material.RAW_GOLD, 30.0);
-        setDefaultPrice(Material.RAW_COPPER, 5.0);
+    /**
+     * Build the catalog from the loaded file. Categories come from the defaults,
+     * overridden by an optional "categories" section mapping materials to category keys.
+     */
+    private void buildCatalog() {
+        Map<Material, Double> prices = new EnumMap<>(Material.class);
+        ConfigurationSection priceSection = pricesConfig.getConfigurationSection("prices");
+        if (priceSection != null) {
+            for (String key : priceSection.getKeys(false)) {
+                Material material = Material.matchMaterial(key);
+                if (material == null) {
+                    plugin.getLogger().warning("Unknown material in prices.yml: " + key);
+                    continue;
+                }
+                prices.put(material, priceSection.getDouble(key));
+            }
+        }
 
-        // Wood
-        setDefaultPrice(Material.OAK_LOG, 10.0);
-        setDefaultPrice(Material.SPRUCE_LOG, 10.0);
-        setDefaultPrice(Material.BIRCH_LOG, 10.0);
-        setDefaultPrice(Material.JUNGLE_LOG, 10.0);
-        setDefaultPrice(Material.ACACIA_LOG, 10.0);
-        setDefaultPrice(Material.DARK_OAK_LOG, 10.0);
-        setDefaultPrice(Material.MANGROVE_LOG, 10.0);
-        setDefaultPrice(Material.CHERRY_LOG, 12.0);
+        Map<Material, PriceCategory> categories = new EnumMap<>(DEFAULT_CATEGORIES);
+        ConfigurationSection categorySection = pricesConfig.getConfigurationSection("categories");
+        if (categorySection != null) {
+            for (String key : categorySection.getKeys(false)) {
+                Material material = Material.matchMaterial(key);
+                PriceCategory category = PriceCategory.fromKey(categorySection.getString(key, ""));
+                if (material == null || category == null) {
+                    plugin.getLogger().warning("Invalid category in prices.yml: " + key);
+                    continue;
+                }
+                categories.put(material, category);
+            }
+        }
 
-        // Stone
-        setDefaultPrice(Material.COBBLESTONE, 1.0);
-        setDefaultPrice(Material.STONE, 2.0);
-        setDefaultPrice(Material.GRANITE, 2.0);
-        setDefaultPrice(Material.DIORITE, 2.0);
-        setDefaultPrice(Material.ANDESITE, 2.0);
-        setDefaultPrice(Material.DEEPSLATE, 3.0);
+        catalog = new PriceCatalog(prices, categories);
 
-        // Crops
-        setDefaultPrice(Material.WHEAT, 3.0);
-        setDefaultPrice(Material.CARROT, 4.0);
-        setDefaultPrice(Material.POTATO, 4.0);
-        setDefaultPrice(Material.BEETROOT, 3.0);
-        setDefaultPrice(Material.MELON_SLICE, 2.0);
-        setDefaultPrice(Material.PUMPKIN, 8.0);
-        setDefaultPrice(Material.SUGAR_CANE, 5.0);
+        List<PriceRule> rules = new ArrayList<>();
+        ConfigurationSection ruleSection = pricesConfig.getConfigurationSection("rules");
+        if (ruleSection != null) {
+            for (String key : ruleSection.getKeys(false)) {
+                ConfigurationSection section = ruleSection.getConfigurationSection(key);
+                PriceRule rule = section != null ? PriceRule.load(key, section, plugin.getLogger()) : null;
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            }
+        }
+        resolver = new ItemPriceResolver(catalog, rules, plugin.getConfig().getInt("pricing.rule-cache-size", 4096));
+    }
 
-        // Mob Drops
-        setDefaultPrice(Material.LEATHER, 8.0);
-        setDefaultPrice(Material.BONE, 3.0);
-        setDefaultPrice(Material.STRING, 4.0);
-        setDefaultPrice(Material.ROTTEN_FLESH, 1.0);
-        setDefaultPrice(Material.SPIDER_EYE, 5.0);
-        setDefaultPrice(Material.GUNPOWDER, 10.0);
-        setDefaultPrice(Material.ENDER_PEARL, 25.0);
-        setDefaultPrice(Material.BLAZE_ROD, 30.0);
-        setDefaultPrice(Material.GHAST_TEAR, 50.0);
+    private void createDefaults() {
+        pricesConfig = YamlConfiguration.loadConfiguration(pricesFile);
 
-        // Fish
-        setDefaultPrice(Material.COD, 5.0);
-        setDefaultPrice(Material.SALMON, 6.0);
-        setDefaultPrice(Material.TROPICAL_FISH, 15.0);
-        setDefaultPrice(Material.PUFFERFISH, 20.0);
+        for (Map.Entry<Material, Double> entry : DEFAULT_PRICES.entrySet()) {
+            pricesConfig.set("prices." + entry.getKey().name(), entry.getValue());
+        }
 
         save();
     }
 
-    private void setDefaultPrice(Material material, double price) {
-        pricesConfig.set("prices." + material.name(), price);
-    }
-
     public void save() {
         try {
             pricesConfig.save(pricesFile);
@@ -138,6 +209,7 @@ public class ItemPriceManager {
 
     public void reload() {
         pricesConfig = YamlConfiguration.loadConfiguration(pricesFile);
+        buildCatalog();
         plugin.getLogger().info("Reloaded prices.yml");
     }
 
@@ -148,7 +220,7 @@ public class ItemPriceManager {
      * @return The price, or 0 if not sellable
      */
     public double getPrice(Material material) {
-        return pricesConfig.getDouble("prices." + material.name(), 0.0);
+        return catalog.getPrice(material);
     }
 
     /**
@@ -161,18 +233,69 @@ public class ItemPriceManager {
         return getPrice(material) > 0;
     }
 
+    /**
+     * Check if some item of a material may be sold, either at its catalog
+     * price or through a rule that can match it.
+     *
+     * @param material The material to check
+     * @return true if the material is priced or named by a rule
+     */
+    public boolean mayBeSellable(Material material) {
+        return isSellable(material) || resolver.hasRulesFor(material);
+    }
+
+    /**
+     * Get the sell price for one item of a stack, applying metadata rules.
+     *
+     * @param item The item to check
+     * @return The price per item, or 0 if not sellable
+     */
+    public double getPrice(ItemStack item) {
+        return resolver.getPrice(item);
+    }
+
+    /**
+     * Check if an item can be sold, taking metadata rules into account.
+     *
+     * @param item The item to check
+     * @return true if the item has a price > 0
+     */
+    public boolean isSellable(ItemStack item) {
+        return getPrice(item) > 0;
+    }
+
+    /**
+     * Get the total sell value of a set of items, such as an inventory's contents.
+     *
+     * @param items The items, which may contain nulls
+     * @return The combined value of every sellable item
+     */
+    public double appraise(ItemStack[] items) {
+        double total = 0;
+        for (ItemStack item : items) {
+            if (item != null && item.getType() != Material.AIR) {
+                total += getPrice(item) * item.getAmount();
+            }
+        }
+        return Math.round(total * 100.0) / 100.0;
+    }
+
     /**
      * Get all configured prices.
      * 
-     * @return Map of material names to prices
+     * @return Unmodifiable map of material names to prices
      */
     public Map<String, Double> getAllPrices() {
-        Map<String, Double> prices = new HashMap<>();
-        if (pricesConfig.getConfigurationSection("prices") != null) {
-            for (String key : pricesConfig.getConfigurationSection("prices").getKeys(false)) {
-                prices.put(key, pricesConfig.getDouble("prices." + key));
-            }
-        }
-        return prices;
+        return catalog.getPricesByName();
+    }
+
+    /**
+     * Get the catalog built from the current prices file.
+     * A new catalog replaces it on reload.
+     *
+     * @return The current catalog
+     */
+    public PriceCatalog getCatalog() {
+        return catalog;
     }
 }
@@ -0,0 +1,265 @@
+package com.worldoforbis.economy;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.EnchantmentStorageMeta;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Prices ItemStacks by material plus the metadata rules in prices.yml.
+ *
+ * When the rules are loaded, the resolver records which item properties
+ * they read and prices every material once as a plain stack. Items without
+ * metadata, and all items when no rule reads metadata, are priced from that
+ * table. Other items are reduced to an {@link ItemSignature} holding only
+ * the properties rules read; the item meta is only cloned when a rule needs
+ * a field that is not available from the stack itself. Rule results are
+ * memoized per signature in a bounded LRU cache. A new resolver is built on
+ * every reload, which also clears the cache.
+ *
+ * Not thread-safe; use from the main thread.
+ */
+final class ItemPriceResolver {
+
+    private static final String[] NO_TAGS = new String[0];
+
+    private final PriceCatalog catalog;
+    private final List<PriceRule> rules;
+    private final List<NamespacedKey> tagKeys;
+    private final Map<ItemSignature, Double> cache;
+
+    // Indexed by Material ordinal
+    private final double[] plainPrices;
+    private final boolean[] ruleMaterials;
+
+    // Item properties read by at least one rule
+    private final boolean readsEnchantments;
+    private final boolean readsCustomModelData;
+    private final boolean readsDamage;
+    private final boolean readsRenamed;
+    private final boolean readsItem;
+
+    ItemPriceResolver(PriceCatalog catalog, List<PriceRule> rules, int cacheSize) {
+        this.catalog = catalog;
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+
+        List<NamespacedKey> keys = new ArrayList<>();
+        boolean enchantments = false;
+        boolean customModelData = false;
+        boolean damage = false;
+        boolean renamed = false;
+        for (PriceRule rule : rules) {
+            if (rule.getTag() != null && !keys.contains(rule.getTag())) {
+                keys.add(rule.getTag());
+            }
+            enchantments |= rule.readsEnchantments();
+            customModelData |= rule.readsCustomModelData();
+            damage |= rule.readsDamage();
+            renamed |= rule.readsRenamed();
+        }
+        this.tagKeys = Collections.unmodifiableList(keys);
+        this.readsEnchantments = enchantments;
+        this.readsCustomModelData = customModelData;
+        this.readsDamage = damage;
+        this.readsRenamed = renamed;
+        this.readsItem = enchantments || customModelData || damage || renamed || !keys.isEmpty();
+
+        Material[] materials = Material.values();
+        this.ruleMaterials = new boolean[materials.length];
+        for (PriceRule rule : rules) {
+            if (rule.getMaterials() == null) {
+                Arrays.fill(ruleMaterials, true);
+                break;
+            }
+            for (Material material : rule.getMaterials()) {
+                ruleMaterials[material.ordinal()] = true;
+            }
+        }
+
+        // Price of each material as a stack without metadata
+        this.plainPrices = new double[materials.length];
+        String[] noTags = new String[keys.size()];
+        for (Material material : materials) {
+            double price = catalog.getPrice(material);
+            if (ruleMaterials[material.ordinal()]) {
+                price = evaluate(new ItemSignature(material, Collections.emptyMap(), -1, 0, false, noTags, tagKeys),
+                        price);
+            }
+            plainPrices[material.ordinal()] = price;
+        }
+
+        int maxEntries = Math.max(16, cacheSize);
+        this.cache = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ItemSignature, Double> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the sell price of a single item of this stack.
+     *
+     * @param item The item
+     * @return The price per item, or 0 if it cannot be sold
+     */
+    double getPrice(ItemStack item) {
+        Material material = item.getType();
+
+        // Without metadata, or rules that read it, the price only depends on the material
+        if (!ruleMaterials[material.ordinal()] || !item.hasItemMeta() || !readsItem) {
+            return plainPrices[material.ordinal()];
+        }
+
+        ItemSignature signature = signatureOf(item);
+        Double cached = cache.get(signature);
+        if (cached != null) {
+            return cached;
+        }
+
+        double price = evaluate(signature, catalog.getPrice(material));
+        cache.put(signature, price);
+        return price;
+    }
+
+    /**
+     * Check whether a rule may price items of a material, which can make it
+     * sellable even without a catalog price.
+     */
+    boolean hasRulesFor(Material material) {
+        return ruleMaterials[material.ordinal()];
+    }
+
+    private ItemSignature signatureOf(ItemStack item) {
+        Material material = item.getType();
+
+        // Enchanted books keep their enchantments in the meta as stored enchants
+        boolean needsMeta = readsCustomModelData || readsDamage || readsRenamed || !tagKeys.isEmpty()
+                || (readsEnchantments && material == Material.ENCHANTED_BOOK);
+        if (!needsMeta) {
+            return new ItemSignature(material, item.getEnchantments(), -1, 0, false, NO_TAGS, tagKeys);
+        }
+
+        ItemMeta meta = item.getItemMeta();
+        Map<Enchantment, Integer> enchantments = Collections.emptyMap();
+        if (readsEnchantments) {
+            // Both already return copies
+            enchantments = meta instanceof EnchantmentStorageMeta
+                    ? ((EnchantmentStorageMeta) meta).getStoredEnchants()
+                    : meta.getEnchants();
+        }
+        int customModelData = readsCustomModelData && meta.hasCustomModelData() ? meta.getCustomModelData() : -1;
+        int damage = readsDamage && meta instanceof Damageable ? ((Damageable) meta).getDamage() : 0;
+        boolean renamed = readsRenamed && meta.hasDisplayName();
+
+        String[] tagValues = NO_TAGS;
+        if (!tagKeys.isEmpty()) {
+            tagValues = new String[tagKeys.size()];
+            PersistentDataContainer container = meta.getPersistentDataContainer();
+            for (int i = 0; i < tagValues.length; i++) {
+                NamespacedKey key = tagKeys.get(i);
+                if (!container.has(key)) {
+                    continue;
+                }
+                try {
+                    tagValues[i] = container.get(key, PersistentDataType.STRING);
+                } catch (IllegalArgumentException e) {
+                    tagValues[i] = ItemSignature.PRESENT;
+                }
+            }
+        }
+        return new ItemSignature(material, enchantments, customModelData, damage, renamed, tagValues, tagKeys);
+    }
+
+    private double evaluate(ItemSignature signature, double price) {
+        for (PriceRule rule : rules) {
+            if (rule.matches(signature)) {
+                price = rule.apply(price);
+                if (!rule.isSellable()) {
+                    break;
+                }
+            }
+        }
+        return Math.max(0, Math.round(price * 100.0) / 100.0);
+    }
+
+    /**
+     * The properties of an item that pricing rules can match on.
+     * Properties no rule reads are left at their defaults so such items share a cache entry.
+     */
+    static final class ItemSignature {
+        // Marks a tag that is present but not stored as a string
+        static final String PRESENT = "\0";
+
+        final Material material;
+        final Map<Enchantment, Integer> enchantments;
+        final int customModelData;
+        final int damage;
+        final boolean renamed;
+        private final List<NamespacedKey> tagKeys;
+        private final String[] tagValues;
+        private final int hash;
+
+        ItemSignature(Material material, Map<Enchantment, Integer> enchantments, int customModelData, int damage,
+                boolean renamed, String[] tagValues, List<NamespacedKey> tagKeys) {
+            this.material = material;
+            this.enchantments = enchantments;
+            this.customModelData = customModelData;
+            this.damage = damage;
+            this.renamed = renamed;
+            this.tagValues = tagValues;
+            this.tagKeys = tagKeys;
+            this.hash = Objects.hash(material, enchantments, customModelData, damage, renamed,
+                    Arrays.hashCode(tagValues));
+        }
+
+        double durabilityFraction() {
+            short max = material.getMaxDurability();
+            return max > 0 ? 1.0 - (double) damage / max : 1.0;
+        }
+
+        /**
+         * @return The tag's string value, a marker if it holds another type, or null if absent
+         */
+        String getTag(NamespacedKey key) {
+            int index = tagKeys.indexOf(key);
+            return index >= 0 && index < tagValues.length ? tagValues[index] : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ItemSignature)) {
+                return false;
+            }
+            ItemSignature other = (ItemSignature) o;
+            return hash == other.hash
+                    && material == other.material
+                    && customModelData == other.customModelData
+                    && damage == other.damage
+                    && renamed == other.renamed
+                    && enchantments.equals(other.enchantments)
+                    && Arrays.equals(tagValues, other.tagValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
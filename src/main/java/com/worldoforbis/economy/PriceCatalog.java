@@ -0,0 +1,205 @@
+package com.worldoforbis.economy;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable index of sell prices, built once each time prices.yml is loaded.
+ *
+ * Holds an EnumMap for price lookups, views sorted by name and by price,
+ * per-category groupings, a name index for prefix search and the chat
+ * pages shown by /eco prices. Nothing here changes until the next reload.
+ */
+public final class PriceCatalog {
+
+    public static final int PAGE_SIZE = 10;
+
+    private final Map<Material, Double> prices;
+    private final Map<String, Double> pricesByName;
+    private final List<Entry> byName;
+    private final List<Entry> byPrice;
+    private final Map<PriceCategory, List<Entry>> byCategory;
+    private final NavigableMap<String, Entry> nameIndex;
+    private final Map<PriceCategory, List<List<String>>> categoryPages;
+    private final List<List<String>> allPages;
+
+    PriceCatalog(Map<Material, Double> prices, Map<Material, PriceCategory> categories) {
+        Map<Material, Double> priceMap = new EnumMap<>(Material.class);
+        Map<String, Double> nameMap = new LinkedHashMap<>();
+        List<Entry> entries = new ArrayList<>();
+
+        for (Map.Entry<Material, Double> price : prices.entrySet()) {
+            if (price.getValue() <= 0) {
+                continue;
+            }
+            PriceCategory category = categories.getOrDefault(price.getKey(), PriceCategory.OTHER);
+            entries.add(new Entry(price.getKey(), price.getValue(), category));
+            priceMap.put(price.getKey(), price.getValue());
+        }
+
+        entries.sort(Comparator.comparing(Entry::getDisplayName));
+        for (Entry entry : entries) {
+            nameMap.put(entry.material.name(), entry.price);
+        }
+        this.prices = Collections.unmodifiableMap(priceMap);
+        this.pricesByName = Collections.unmodifiableMap(nameMap);
+        this.byName = Collections.unmodifiableList(new ArrayList<>(entries));
+
+        List<Entry> sortedByPrice = new ArrayList<>(entries);
+        sortedByPrice.sort(Comparator.comparingDouble(Entry::getPrice).reversed()
+                .thenComparing(Entry::getDisplayName));
+        this.byPrice = Collections.unmodifiableList(sortedByPrice);
+
+        Map<PriceCategory, List<Entry>> grouped = new EnumMap<>(PriceCategory.class);
+        for (Entry entry : sortedByPrice) {
+            grouped.computeIfAbsent(entry.category, k -> new ArrayList<>()).add(entry);
+        }
+        grouped.replaceAll((category, list) -> Collections.unmodifiableList(list));
+        this.byCategory = Collections.unmodifiableMap(grouped);
+
+        NavigableMap<String, Entry> index = new TreeMap<>();
+        for (Entry entry : entries) {
+            index.put(entry.material.name().toLowerCase(), entry);
+        }
+        this.nameIndex = Collections.unmodifiableNavigableMap(index);
+
+        Map<PriceCategory, List<List<String>>> pages = new EnumMap<>(PriceCategory.class);
+        for (Map.Entry<PriceCategory, List<Entry>> group : grouped.entrySet()) {
+            pages.put(group.getKey(), renderPages(group.getKey().getDisplayName(), group.getValue()));
+        }
+        this.categoryPages = Collections.unmodifiableMap(pages);
+        this.allPages = renderPages("All Items", byName);
+    }
+
+    private static List<List<String>> renderPages(String title, List<Entry> entries) {
+        int pageCount = Math.max(1, (entries.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+        List<List<String>> pages = new ArrayList<>(pageCount);
+
+        for (int page = 0; page < pageCount; page++) {
+            List<String> lines = new ArrayList<>(PAGE_SIZE + 1);
+            lines.add("§6§l=== Prices: " + title + " §7(" + (page + 1) + "/" + pageCount + ") §6§l===");
+            if (entries.isEmpty()) {
+                lines.add("§7No items for sale.");
+            }
+            for (int i = page * PAGE_SIZE; i < Math.min(entries.size(), (page + 1) * PAGE_SIZE); i++) {
+                lines.add(entries.get(i).line);
+            }
+            pages.add(Collections.unmodifiableList(lines));
+        }
+        return Collections.unmodifiableList(pages);
+    }
+
+    // ==================== LOOKUPS ====================
+
+    public double getPrice(Material material) {
+        Double price = prices.get(material);
+        return price != null ? price : 0.0;
+    }
+
+    /**
+     * @return Unmodifiable map of material names to prices, sorted by name
+     */
+    public Map<String, Double> getPricesByName() {
+        return pricesByName;
+    }
+
+    public List<Entry> getByName() {
+        return byName;
+    }
+
+    public List<Entry> getByPrice() {
+        return byPrice;
+    }
+
+    /**
+     * @return Entries in the category, most valuable first
+     */
+    public List<Entry> getCategory(PriceCategory category) {
+        return byCategory.getOrDefault(category, Collections.emptyList());
+    }
+
+    /**
+     * Find items whose material name starts with a prefix.
+     *
+     * @param prefix Case-insensitive prefix; spaces match underscores
+     * @return Matching entries sorted by name
+     */
+    public List<Entry> search(String prefix) {
+        String key = prefix.toLowerCase().replace(' ', '_');
+        return new ArrayList<>(nameIndex.subMap(key, true, key + Character.MAX_VALUE, false).values());
+    }
+
+    /**
+     * Get a pre-rendered page of every item, sorted by name.
+     *
+     * @param page The page number, starting at 1 and clamped to the valid range
+     */
+    public List<String> getPage(int page) {
+        return allPages.get(clamp(page, allPages.size()));
+    }
+
+    /**
+     * Get a pre-rendered page of one category, most valuable first.
+     *
+     * @param page The page number, starting at 1 and clamped to the valid range
+     */
+    public List<String> getPage(PriceCategory category, int page) {
+        List<List<String>> pages = categoryPages.get(category);
+        if (pages == null) {
+            pages = renderPages(category.getDisplayName(), Collections.emptyList());
+        }
+        return pages.get(clamp(page, pages.size()));
+    }
+
+    private static int clamp(int page, int pageCount) {
+        return Math.max(0, Math.min(page, pageCount) - 1);
+    }
+
+    /**
+     * A priced item with its chat line rendered once.
+     */
+    public static final class Entry {
+        private final Material material;
+        private final double price;
+        private final PriceCategory category;
+        private final String displayName;
+        private final String line;
+
+        private Entry(Material material, double price, PriceCategory category) {
+            this.material = material;
+            this.price = price;
+            this.category = category;
+            this.displayName = material.name().replace("_", " ").toLowerCase();
+            this.line = "§f" + displayName + " §7- §a" + EconomyManager.formatCurrency(price);
+        }
+
+        public Material getMaterial() {
+            return material;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public PriceCategory getCategory() {
+            return category;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public String getLine() {
+            return line;
+        }
+    }
+}
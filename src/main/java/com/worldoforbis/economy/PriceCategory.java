@@ -0,0 +1,46 @@
+package com.worldoforbis.economy;
+
+/**
+ * Groups used to browse sell prices with /eco prices.
+ */
+public enum PriceCategory {
+    ORES("ores", "Ores & Ingots"),
+    RAW_ORES("raw-ores", "Raw Ores"),
+    WOOD("wood", "Wood"),
+    STONE("stone", "Stone"),
+    CROPS("crops", "Crops"),
+    MOB_DROPS("mob-drops", "Mob Drops"),
+    FISH("fish", "Fish"),
+    OTHER("other", "Other");
+
+    private final String key;
+    private final String displayName;
+
+    PriceCategory(String key, String displayName) {
+        this.key = key;
+        this.displayName = displayName;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Find a category by its key.
+     *
+     * @param key The key, e.g. "mob-drops"
+     * @return The category, or null if none matches
+     */
+    public static PriceCategory fromKey(String key) {
+        for (PriceCategory category : values()) {
+            if (category.key.equalsIgnoreCase(key)) {
+                return category;
+            }
+        }
+        return null;
+    }
+}
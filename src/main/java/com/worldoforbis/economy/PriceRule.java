@@ -0,0 +1,171 @@
+package com.worldoforbis.economy;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.enchantments.Enchantment;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * A pricing rule from the "rules" section of prices.yml.
+ *
+ * Every condition that is set must match. Matching rules are applied in
+ * file order: price replaces the running price, then multiplier and bonus
+ * adjust it. A rule with sellable: false makes the item worthless.
+ */
+final class PriceRule {
+
+    private final String name;
+    private Set<Material> materials;
+    private final Map<Enchantment, Integer> enchantments = new HashMap<>();
+    private int customModelData = -1;
+    private double minDurability = -1;
+    private Boolean renamed;
+    private NamespacedKey tag;
+    private String tagValue;
+
+    private Double price;
+    private double multiplier = 1.0;
+    private double bonus;
+    private boolean sellable = true;
+
+    private PriceRule(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Parse a rule, logging and returning null if it is invalid.
+     */
+    static PriceRule load(String name, ConfigurationSection section, Logger logger) {
+        PriceRule rule = new PriceRule(name);
+
+        if (section.contains("materials")) {
+            rule.materials = EnumSet.noneOf(Material.class);
+            for (String key : section.getStringList("materials")) {
+                Material material = Material.matchMaterial(key);
+                if (material == null) {
+                    logger.warning("Price rule " + name + ": unknown material " + key);
+                    return null;
+                }
+                rule.materials.add(material);
+            }
+        }
+
+        ConfigurationSection enchantSection = section.getConfigurationSection("enchantments");
+        if (enchantSection != null) {
+            for (String key : enchantSection.getKeys(false)) {
+                NamespacedKey enchantKey = NamespacedKey.fromString(key.toLowerCase());
+                Enchantment enchantment = enchantKey != null ? Registry.ENCHANTMENT.get(enchantKey) : null;
+                if (enchantment == null) {
+                    logger.warning("Price rule " + name + ": unknown enchantment " + key);
+                    return null;
+                }
+                rule.enchantments.put(enchantment, Math.max(1, enchantSection.getInt(key, 1)));
+            }
+        }
+
+        if (section.contains("tag")) {
+            rule.tag = NamespacedKey.fromString(section.getString("tag", "").toLowerCase());
+            if (rule.tag == null) {
+                logger.warning("Price rule " + name + ": invalid tag " + section.getString("tag"));
+                return null;
+            }
+            rule.tagValue = section.getString("tag-value");
+        }
+
+        rule.customModelData = section.getInt("custom-model-data", -1);
+        rule.minDurability = section.getDouble("min-durability", -1);
+        if (section.contains("renamed")) {
+            rule.renamed = section.getBoolean("renamed");
+        }
+        if (section.contains("price")) {
+            rule.price = section.getDouble("price");
+        }
+        rule.multiplier = section.getDouble("multiplier", 1.0);
+        rule.bonus = section.getDouble("bonus", 0.0);
+        rule.sellable = section.getBoolean("sellable", true);
+        return rule;
+    }
+
+    /**
+     * @return The materials this rule is limited to, or null if it matches any material
+     */
+    Set<Material> getMaterials() {
+        return materials;
+    }
+
+    boolean readsEnchantments() {
+        return !enchantments.isEmpty();
+    }
+
+    boolean readsCustomModelData() {
+        return customModelData >= 0;
+    }
+
+    boolean readsDamage() {
+        return minDurability >= 0;
+    }
+
+    boolean readsRenamed() {
+        return renamed != null;
+    }
+
+    /**
+     * @return The tag key this rule reads, or null
+     */
+    NamespacedKey getTag() {
+        return tag;
+    }
+
+    boolean matches(ItemPriceResolver.ItemSignature item) {
+        if (materials != null && !materials.contains(item.material)) {
+            return false;
+        }
+        for (Map.Entry<Enchantment, Integer> required : enchantments.entrySet()) {
+            if (item.enchantments.getOrDefault(required.getKey(), 0) < required.getValue()) {
+                return false;
+            }
+        }
+        if (customModelData >= 0 && item.customModelData != customModelData) {
+            return false;
+        }
+        if (minDurability >= 0 && item.durabilityFraction() < minDurability) {
+            return false;
+        }
+        if (renamed != null && item.renamed != renamed) {
+            return false;
+        }
+        if (tag != null) {
+            String value = item.getTag(tag);
+            if (value == null || (tagValue != null && !tagValue.equals(value))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Apply this rule to the running price.
+     */
+    double apply(double current) {
+        if (!sellable) {
+            return 0;
+        }
+        double base = price != null ? price : current;
+        return base * multiplier + bonus;
+    }
+
+    boolean isSellable() {
+        return sellable;
+    }
+
+    String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,226 @@
+package com.worldoforbis.economy;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Enforces per-player, per-material sell limits over a rolling window.
+ *
+ * Each player has one flat int array of time buckets per limited material
+ * they have sold, kept as a ring and allocated on that material's first
+ * sale. Buckets that fall out of the window are cleared lazily when the
+ * player next sells, so checks and records cost O(1).
+ */
+public class SellLimitManager {
+
+    private static final long SWEEP_PERIOD_TICKS = 6000L;
+
+    private static SellLimitManager instance;
+    private final JavaPlugin plugin;
+
+    private boolean enabled;
+    private int bucketCount;
+    private long bucketMillis;
+
+    // Indexed by Material ordinal, -1 when the material has no limit
+    private int[] slotByMaterial;
+    private int[] limits;
+
+    private final Map<UUID, Counters> counters = new HashMap<>();
+
+    private SellLimitManager(JavaPlugin plugin) {
+        this.plugin = plugin;
+        loadSettings();
+    }
+
+    public static void initialize(JavaPlugin plugin) {
+        if (instance == null) {
+            instance = new SellLimitManager(plugin);
+            plugin.getServer().getScheduler().runTaskTimer(plugin, instance::sweep, SWEEP_PERIOD_TICKS,
+                    SWEEP_PERIOD_TICKS);
+        }
+    }
+
+    public static SellLimitManager getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("SellLimitManager has not been initialized!");
+        }
+        return instance;
+    }
+
+    private void loadSettings() {
+        FileConfiguration config = plugin.getConfig();
+        enabled = config.getBoolean("sell-limits.enabled", false);
+
+        String window = config.getString("sell-limits.window", "daily").toLowerCase();
+        if (window.equals("hourly")) {
+            // 12 buckets of 5 minutes
+            bucketCount = 12;
+            bucketMillis = 5L * 60_000L;
+        } else {
+            // 24 buckets of 1 hour
+            bucketCount = 24;
+            bucketMillis = 60L * 60_000L;
+        }
+
+        slotByMaterial = new int[Material.values().length];
+        Arrays.fill(slotByMaterial, -1);
+
+        int defaultLimit = config.getInt("sell-limits.default", -1);
+        ConfigurationSection materials = config.getConfigurationSection("sell-limits.materials");
+        Map<Material, Integer> configured = new HashMap<>();
+        if (materials != null) {
+            for (String key : materials.getKeys(false)) {
+                Material material = Material.matchMaterial(key);
+                if (material == null) {
+                    plugin.getLogger().warning("Unknown material in sell-limits: " + key);
+                    continue;
+                }
+                configured.put(material, materials.getInt(key));
+            }
+        }
+
+        // Only materials that can be sold, at a catalog price or through a rule, need a slot
+        int slots = 0;
+        int[] slotLimits = new int[Material.values().length];
+        for (Material material : Material.values()) {
+            int limit = configured.getOrDefault(material, -1);
+            if (limit < 0 && defaultLimit >= 0 && ItemPriceManager.getInstance().mayBeSellable(material)) {
+                limit = defaultLimit;
+            }
+            if (limit >= 0) {
+                slotByMaterial[material.ordinal()] = slots;
+                slotLimits[slots++] = limit;
+            }
+        }
+        limits = Arrays.copyOf(slotLimits, slots);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getWindowName() {
+        return bucketCount == 12 ? "hour" : "day";
+    }
+
+    /**
+     * Get how many more items of a material a player may sell in the current window.
+     *
+     * @param uuid     The player
+     * @param material The material being sold
+     * @return The remaining allowance, or Integer.MAX_VALUE if unlimited
+     */
+    public int getRemaining(UUID uuid, Material material) {
+        int slot = enabled ? slotByMaterial[material.ordinal()] : -1;
+        if (slot < 0) {
+            return Integer.MAX_VALUE;
+        }
+
+        Counters playerCounters = counters.get(uuid);
+        Ring ring = playerCounters != null ? playerCounters.rings[slot] : null;
+        if (ring == null) {
+            return limits[slot];
+        }
+        ring.advance(currentBucket());
+        return Math.max(0, limits[slot] - ring.sum);
+    }
+
+    /**
+     * Record a completed sale against the player's allowance.
+     *
+     * @param uuid     The player
+     * @param material The material sold
+     * @param amount   The number of items sold
+     */
+    public void recordSale(UUID uuid, Material material, int amount) {
+        int slot = enabled ? slotByMaterial[material.ordinal()] : -1;
+        if (slot < 0) {
+            return;
+        }
+
+        long bucket = currentBucket();
+        Counters playerCounters = counters.computeIfAbsent(uuid, k -> new Counters(limits.length));
+        Ring ring = playerCounters.rings[slot];
+        if (ring == null) {
+            ring = new Ring(bucketCount, bucket);
+            playerCounters.rings[slot] = ring;
+        }
+        ring.advance(bucket);
+        ring.counts[(int) (bucket % bucketCount)] += amount;
+        ring.sum += amount;
+        playerCounters.lastBucket = bucket;
+    }
+
+    /**
+     * Drop counters whose newest sale has left the window entirely.
+     */
+    private void sweep() {
+        long oldest = currentBucket() - bucketCount;
+        Iterator<Counters> it = counters.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().lastBucket <= oldest) {
+                it.remove();
+            }
+        }
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    /**
+     * Rolling counters for one player, with a ring only for each limited material they have sold.
+     */
+    private static final class Counters {
+        private final Ring[] rings;
+        private long lastBucket;
+
+        private Counters(int slots) {
+            this.rings = new Ring[slots];
+        }
+    }
+
+    /**
+     * Sales of one material in each bucket of the window, with their running sum.
+     */
+    private static final class Ring {
+        private final int[] counts;
+        private int sum;
+        private long head;
+
+        private Ring(int buckets, long head) {
+            this.counts = new int[buckets];
+            this.head = head;
+        }
+
+        /**
+         * Clear buckets that have rotated out of the window since the ring was last touched.
+         */
+        private void advance(long bucket) {
+            if (bucket <= head) {
+                return;
+            }
+
+            if (bucket - head >= counts.length) {
+                Arrays.fill(counts, 0);
+                sum = 0;
+            } else {
+                for (long b = head + 1; b <= bucket; b++) {
+                    int index = (int) (b % counts.length);
+                    sum -= counts[index];
+                    counts[index] = 0;
+                }
+            }
+            head = bucket;
+        }
+    }
+}
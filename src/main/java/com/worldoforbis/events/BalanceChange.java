@@ -0,0 +1,42 @@
+package com.worldoforbis.events;
+
+import java.util.UUID;
+
+/**
+ * A coalesced balance change delivered to async {@link BalanceChangeBus} subscribers.
+ * Covers every change made to the account since the previous delivery.
+ */
+public final class BalanceChange {
+
+    private final UUID uuid;
+    private final double oldBalance;
+    private final double newBalance;
+
+    public BalanceChange(UUID uuid, double oldBalance, double newBalance) {
+        this.uuid = uuid;
+        this.oldBalance = oldBalance;
+        this.newBalance = newBalance;
+    }
+
+    public UUID getUniqueId() {
+        return uuid;
+    }
+
+    /**
+     * @return The balance before the first change in this batch
+     */
+    public double getOldBalance() {
+        return oldBalance;
+    }
+
+    /**
+     * @return The balance after the last change in this batch
+     */
+    public double getNewBalance() {
+        return newBalance;
+    }
+
+    public double getDelta() {
+        return newBalance - oldBalance;
+    }
+}
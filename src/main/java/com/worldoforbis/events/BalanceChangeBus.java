@@ -0,0 +1,127 @@
+package com.worldoforbis.events;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Publishes balance changes to other plugins.
+ *
+ * Changes are fired immediately as a {@link BalanceChangeEvent} for sync
+ * listeners, and pushed onto a lock-free queue for async subscribers.
+ * The queue is drained once per tick off the main thread, and several
+ * changes to the same account in that time are delivered as one. Only one
+ * drain runs at a time, so subscribers are never called concurrently and
+ * see each account's changes in order.
+ *
+ * When nobody listens, {@link #hasListeners()} is false and the economy
+ * skips publishing entirely.
+ */
+public class BalanceChangeBus {
+
+    private static BalanceChangeBus instance;
+    private final JavaPlugin plugin;
+
+    private final Queue<BalanceChange> queue = new ConcurrentLinkedQueue<>();
+    private final List<Consumer<BalanceChange>> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private BalanceChangeBus(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public static void initialize(JavaPlugin plugin) {
+        if (instance == null) {
+            instance = new BalanceChangeBus(plugin);
+            plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, instance::drain, 1L, 1L);
+        }
+    }
+
+    public static BalanceChangeBus getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("BalanceChangeBus has not been initialized!");
+        }
+        return instance;
+    }
+
+    /**
+     * Subscribe to coalesced balance changes. The subscriber is called off the
+     * main thread, by one thread at a time.
+     *
+     * @param subscriber The subscriber
+     */
+    public void subscribe(Consumer<BalanceChange> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<BalanceChange> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Check whether any sync listener or async subscriber is registered.
+     *
+     * @return true if changes should be published
+     */
+    public boolean hasListeners() {
+        return !subscribers.isEmpty() || BalanceChangeEvent.getHandlerList().getRegisteredListeners().length > 0;
+    }
+
+    /**
+     * Publish a balance change. Must be called on the main thread.
+     *
+     * @param uuid       The account
+     * @param oldBalance The balance before the change
+     * @param newBalance The balance after the change
+     */
+    public void publish(UUID uuid, double oldBalance, double newBalance) {
+        if (BalanceChangeEvent.getHandlerList().getRegisteredListeners().length > 0) {
+            plugin.getServer().getPluginManager().callEvent(new BalanceChangeEvent(uuid, oldBalance, newBalance));
+        }
+        if (!subscribers.isEmpty()) {
+            queue.offer(new BalanceChange(uuid, oldBalance, newBalance));
+        }
+    }
+
+    private void drain() {
+        // The scheduler starts a repeating async task again even if the last run is still going
+        if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            deliver();
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private void deliver() {
+        // Coalesce by account, keeping the first old balance and the last new balance
+        Map<UUID, BalanceChange> pending = new LinkedHashMap<>();
+        BalanceChange change;
+        while ((change = queue.poll()) != null) {
+            pending.merge(change.getUniqueId(), change,
+                    (first, last) -> new BalanceChange(first.getUniqueId(), first.getOldBalance(),
+                            last.getNewBalance()));
+        }
+
+        for (BalanceChange coalesced : pending.values()) {
+            for (Consumer<BalanceChange> subscriber : subscribers) {
+                try {
+                    subscriber.accept(coalesced);
+                } catch (RuntimeException e) {
+                    plugin.getLogger().log(Level.WARNING, "Balance change subscriber failed", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.worldoforbis.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.UUID;
+
+/**
+ * Called on the main thread whenever a balance is changed.
+ * Fired once per change and not coalesced; listeners that can tolerate
+ * batched delivery should subscribe to {@link BalanceChangeBus} instead.
+ */
+public class BalanceChangeEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final UUID uuid;
+    private final double oldBalance;
+    private final double newBalance;
+
+    public BalanceChangeEvent(UUID uuid, double oldBalance, double newBalance) {
+        this.uuid = uuid;
+        this.oldBalance = oldBalance;
+        this.newBalance = newBalance;
+    }
+
+    public UUID getUniqueId() {
+        return uuid;
+    }
+
+    public double getOldBalance() {
+        return oldBalance;
+    }
+
+    public double getNewBalance() {
+        return newBalance;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,381 @@
+package com.worldoforbis.sim;
+
+import com.worldoforbis.commands.EcoCommand;
+import com.worldoforbis.economy.BackupManager;
+import com.worldoforbis.economy.EconomyImporter;
+import com.worldoforbis.economy.EconomyManager;
+import com.worldoforbis.economy.InterestScheduler;
+import com.worldoforbis.economy.ItemPriceManager;
+import com.worldoforbis.economy.SellLimitManager;
+import com.worldoforbis.events.BalanceChangeBus;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.command.CommandSender;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Headless load simulation for the economy subsystem.
+ *
+ * Drives {@link EcoCommand} and {@link EconomyManager} with N simulated
+ * players against stub server, player and inventory implementations, and
+ * reports main thread time per tick, command latency, allocation rate and
+ * file I/O. Ticks run back to back rather than every 50 ms, so tick times
+ * are pure CPU and I/O cost.
+ *
+ * Run with: ./gradlew simulate --args="--players=300 --ticks=1200"
+ *
+ * Options: --players, --ticks, --accounts (extra stored accounts), --rate
+ * (commands per player per second), --mix (e.g. pay:30,sell:30,bal:25,top:10,admin:5),
+ * --seed, --data (data folder) and --config.&lt;path&gt;=&lt;value&gt; to override config.yml.
+ */
+public final class EconomySimulation {
+
+    private static final long TICK_BUDGET_NANOS = 50_000_000L;
+    private static final String[] ADMIN_COMMANDS = { "give", "take", "set", "check", "economy" };
+    private static final Material[] SELL_MATERIALS = { Material.DIAMOND, Material.IRON_INGOT, Material.WHEAT,
+            Material.OAK_LOG, Material.COBBLESTONE, Material.BONE };
+
+    private final Map<String, String> options;
+    private final Random random;
+    private final SimServer server = new SimServer();
+    private final List<SimPlayer> players = new ArrayList<>();
+    private final Map<String, LongSamples> latencies = new LinkedHashMap<>();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private EcoCommand command;
+
+    private EconomySimulation(Map<String, String> options) {
+        this.options = options;
+        this.random = new Random(getLong("seed", 1L));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Ignoring argument: " + arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        new EconomySimulation(options).run();
+    }
+
+    private void run() throws Exception {
+        int playerCount = (int) getLong("players", 300L);
+        int ticks = (int) getLong("ticks", 1200L);
+        int accounts = (int) getLong("accounts", 10_000L);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0.05"));
+        Map<String, Integer> mix = parseMix(options.getOrDefault("mix", "pay:30,sell:30,bal:25,top:10,admin:5"));
+
+        Path dataFolder = options.containsKey("data")
+                ? Path.of(options.get("data"))
+                : Files.createTempDirectory("econoneeds-sim");
+        Files.createDirectories(dataFolder);
+
+        for (int i = 0; i < playerCount; i++) {
+            SimPlayer player = new SimPlayer(UUID.randomUUID(), "Player" + i, i % 50 == 0);
+            players.add(player);
+            server.addPlayer(player);
+        }
+        seedAccounts(dataFolder.resolve("economy.yml"), accounts);
+
+        Bukkit.setServer(server.proxy);
+        JavaPlugin plugin = new SimPlugin(server, dataFolder.toFile());
+        plugin.saveDefaultConfig();
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            if (option.getKey().startsWith("config.")) {
+                plugin.getConfig().set(option.getKey().substring(7), parseValue(option.getValue()));
+            }
+        }
+
+        // Mirrors Econoneeds#onEnable without command registration
+        BalanceChangeBus.initialize(plugin);
+        EconomyManager.initialize(plugin);
+        ItemPriceManager.initialize(plugin);
+        InterestScheduler.initialize(plugin);
+        SellLimitManager.initialize(plugin);
+        EconomyImporter.initialize(plugin);
+        BackupManager.initialize(plugin);
+        server.scheduler.proxy.runTaskTimer(plugin, () -> EconomyManager.getInstance().getStats().refresh(),
+                600L, 600L);
+        command = new EcoCommand();
+
+        long[] tickNanos = new long[ticks];
+        long allocated = 0;
+        long commands = 0;
+        long[] ioBefore = readProcIo();
+        long started = System.nanoTime();
+
+        for (int tick = 0; tick < ticks; tick++) {
+            long tickStart = System.nanoTime();
+            long allocStart = threads.getCurrentThreadAllocatedBytes();
+
+            server.scheduler.tick(tick);
+            long work = System.nanoTime() - tickStart;
+            allocated += threads.getCurrentThreadAllocatedBytes() - allocStart;
+
+            for (SimPlayer player : players) {
+                if (random.nextDouble() >= rate / 20.0) {
+                    continue;
+                }
+                String kind = pick(mix);
+                String[] args = buildCommand(kind, player);
+                CommandSender sender = player.proxy;
+
+                long alloc = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                command.onCommand(sender, null, "eco", args);
+                long elapsed = System.nanoTime() - start;
+                allocated += threads.getCurrentThreadAllocatedBytes() - alloc;
+
+                work += elapsed;
+                latencies.computeIfAbsent(kind, k -> new LongSamples()).add(elapsed);
+                commands++;
+            }
+            tickNanos[tick] = work;
+        }
+
+        long wall = System.nanoTime() - started;
+        long[] ioAfter = readProcIo();
+
+        long saveStart = System.nanoTime();
+        EconomyManager.getInstance().save();
+        long finalSave = System.nanoTime() - saveStart;
+        server.scheduler.shutdown();
+
+        report(playerCount, ticks, commands, tickNanos, allocated, wall, ioBefore, ioAfter, finalSave,
+                dataFolder.resolve("economy.yml").toFile());
+    }
+
+    // ==================== WORKLOAD ====================
+
+    private String[] buildCommand(String kind, SimPlayer player) {
+        switch (kind) {
+            case "pay": {
+                SimPlayer target = players.get(random.nextInt(players.size()));
+                return new String[] { "pay", target.name, String.valueOf(1 + random.nextInt(50)) };
+            }
+            case "sell": {
+                // Restocking stands in for the player gathering items and is not measured separately
+                Material material = SELL_MATERIALS[random.nextInt(SELL_MATERIALS.length)];
+                player.mainHand = new ItemStack(material, 64);
+                return new String[] { "sell", String.valueOf(1 + random.nextInt(16)) };
+            }
+            case "admin": {
+                String sub = ADMIN_COMMANDS[random.nextInt(ADMIN_COMMANDS.length)];
+                SimPlayer target = players.get(random.nextInt(players.size()));
+                if (sub.equals("economy")) {
+                    return new String[] { sub };
+                }
+                if (sub.equals("check")) {
+                    return new String[] { sub, target.name };
+                }
+                return new String[] { sub, target.name, String.valueOf(1 + random.nextInt(500)) };
+            }
+            default:
+                return new String[] { kind };
+        }
+    }
+
+    private String pick(Map<String, Integer> mix) {
+        int total = 0;
+        for (int weight : mix.values()) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return "bal";
+    }
+
+    private static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.split(":");
+            mix.put(pair[0].trim().toLowerCase(), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    private void seedAccounts(Path file, int accounts) throws IOException {
+        StringBuilder yaml = new StringBuilder("players:\n");
+        for (SimPlayer player : players) {
+            yaml.append("  ").append(player.uuid).append(":\n    balance: 1000.0\n");
+        }
+        for (int i = 0; i < accounts; i++) {
+            yaml.append("  ").append(new UUID(random.nextLong(), random.nextLong())).append(":\n    balance: ")
+                    .append(Math.round(Math.exp(random.nextGaussian() * 2 + 6) * 100) / 100.0).append('\n');
+        }
+        Files.writeString(file, yaml, StandardCharsets.UTF_8);
+    }
+
+    // ==================== REPORTING ====================
+
+    private void report(int playerCount, int ticks, long commands, long[] tickNanos, long allocated, long wall,
+            long[] ioBefore, long[] ioAfter, long finalSave, File dataFile) {
+        long[] sortedTicks = tickNanos.clone();
+        Arrays.sort(sortedTicks);
+        long overBudget = Arrays.stream(tickNanos).filter(t -> t > TICK_BUDGET_NANOS).count();
+        double simulatedSeconds = ticks / 20.0;
+
+        System.out.println("=== Econoneeds load simulation ===");
+        System.out.println("Players: " + playerCount + ", ticks: " + ticks + ", commands: " + commands
+                + ", options: " + options);
+        System.out.println();
+        System.out.println("Tick time (ms)   mean " + ms(Arrays.stream(tickNanos).sum() / Math.max(1, ticks))
+                + "  p50 " + ms(percentile(sortedTicks, 0.50))
+                + "  p99 " + ms(percentile(sortedTicks, 0.99))
+                + "  max " + ms(sortedTicks.length > 0 ? sortedTicks[sortedTicks.length - 1] : 0));
+        System.out.println("Ticks over 50ms  " + overBudget + " of " + ticks);
+        System.out.println();
+
+        System.out.println(String.format("%-10s %8s %10s %10s %10s", "Command", "Count", "p50 ms", "p99 ms",
+                "max ms"));
+        LongSamples all = new LongSamples();
+        for (Map.Entry<String, LongSamples> entry : latencies.entrySet()) {
+            long[] samples = entry.getValue().sorted();
+            all.addAll(samples);
+            System.out.println(String.format("%-10s %8d %10s %10s %10s", entry.getKey(), samples.length,
+                    ms(percentile(samples, 0.50)), ms(percentile(samples, 0.99)),
+                    ms(samples.length > 0 ? samples[samples.length - 1] : 0)));
+        }
+        long[] allSorted = all.sorted();
+        System.out.println(String.format("%-10s %8d %10s %10s %10s", "all", allSorted.length,
+                ms(percentile(allSorted, 0.50)), ms(percentile(allSorted, 0.99)),
+                ms(allSorted.length > 0 ? allSorted[allSorted.length - 1] : 0)));
+        System.out.println();
+
+        System.out.println("Main thread allocation  " + mb(allocated) + " MB total, "
+                + mb((long) (allocated / simulatedSeconds)) + " MB per simulated second");
+        if (ioBefore != null && ioAfter != null) {
+            long written = ioAfter[1] - ioBefore[1];
+            System.out.println("File I/O                " + mb(ioAfter[0] - ioBefore[0]) + " MB read, "
+                    + mb(written) + " MB written, " + mb((long) (written / simulatedSeconds))
+                    + " MB written per simulated second");
+        } else {
+            System.out.println("File I/O                unavailable (needs /proc/self/io)");
+        }
+        System.out.println("economy.yml size        " + mb(dataFile.length()) + " MB, final save " + ms(finalSave)
+                + " ms");
+        System.out.println("Wall time               " + ms(wall) + " ms for " + simulatedSeconds
+                + " simulated seconds");
+    }
+
+    /**
+     * Read bytes read and written by this process, or null off Linux.
+     */
+    private static long[] readProcIo() {
+        try {
+            long read = -1;
+            long written = -1;
+            for (String line : Files.readAllLines(Path.of("/proc/self/io"))) {
+                if (line.startsWith("rchar:")) {
+                    read = Long.parseLong(line.substring(6).trim());
+                } else if (line.startsWith("wchar:")) {
+                    written = Long.parseLong(line.substring(6).trim());
+                }
+            }
+            return read >= 0 && written >= 0 ? new long[] { read, written } : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static String ms(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    private static String mb(long bytes) {
+        return String.format("%.2f", bytes / (1024.0 * 1024.0));
+    }
+
+    private static Object parseValue(String value) {
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            return Boolean.parseBoolean(value);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException ignored) {
+                return value;
+            }
+        }
+    }
+
+    private long getLong(String key, long def) {
+        return options.containsKey(key) ? Long.parseLong(options.get(key)) : def;
+    }
+
+    /**
+     * Growable array of latency samples, avoiding boxing inside the measured loop.
+     */
+    private static final class LongSamples {
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(long[] samples) {
+            for (long sample : samples) {
+                add(sample);
+            }
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * Plugin instance built through JavaPlugin's test constructor.
+     */
+    private static final class SimPlugin extends JavaPlugin {
+
+        @SuppressWarnings("deprecation")
+        private SimPlugin(SimServer server, File dataFolder) {
+            super(new JavaPluginLoader(server.proxy),
+                    new PluginDescriptionFile("Econoneeds", "sim", "com.worldoforbis.Econoneeds"),
+                    dataFolder, new File(dataFolder, "Econoneeds.jar"));
+        }
+    }
+}
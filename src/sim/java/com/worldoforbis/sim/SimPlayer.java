@@ -0,0 +1,67 @@
+package com.worldoforbis.sim;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.UUID;
+
+/**
+ * A simulated online player. Messages are counted, not stored.
+ */
+final class SimPlayer {
+
+    final UUID uuid;
+    final String name;
+    final boolean admin;
+    final Player proxy;
+    final PlayerInventory inventory;
+
+    ItemStack mainHand = new ItemStack(Material.AIR);
+    long messages;
+
+    SimPlayer(UUID uuid, String name, boolean admin) {
+        this.uuid = uuid;
+        this.name = name;
+        this.admin = admin;
+        this.inventory = Stubs.create(PlayerInventory.class, (self, method, args) -> {
+            switch (method.getName()) {
+                case "getItemInMainHand":
+                    return mainHand;
+                case "setItemInMainHand":
+                    mainHand = args[0] != null ? (ItemStack) args[0] : new ItemStack(Material.AIR);
+                    return null;
+                case "getContents":
+                case "getStorageContents":
+                    return new ItemStack[] { mainHand };
+                default:
+                    return Stubs.defaultValue(method.getReturnType());
+            }
+        });
+        this.proxy = Stubs.create(Player.class, (self, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                case "getDisplayName":
+                    return name;
+                case "sendMessage":
+                    messages++;
+                    return null;
+                case "hasPermission":
+                case "isOp":
+                    return admin;
+                case "getInventory":
+                    return inventory;
+                case "isOnline":
+                case "hasPlayedBefore":
+                    return true;
+                case "getPlayer":
+                    return self;
+                default:
+                    return Stubs.defaultValue(method.getReturnType());
+            }
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package com.worldoforbis.sim;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Tick-driven stand-in for the Bukkit scheduler.
+ * Sync tasks run inline when {@link #tick(long)} is called and async tasks
+ * are handed to a thread pool. Like the real scheduler, a repeating async
+ * task is started every period even if its previous run has not finished.
+ */
+final class SimScheduler {
+
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<Task> added = new ArrayList<>();
+    private final ExecutorService asyncPool = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "Sim Async Worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int nextId = 1;
+    private long currentTick;
+
+    final BukkitScheduler proxy = Stubs.create(BukkitScheduler.class, (self, method, args) -> schedule(method, args));
+
+    private Object schedule(Method method, Object[] args) {
+        String name = method.getName();
+
+        if (name.equals("cancelTask")) {
+            int id = (Integer) args[0];
+            synchronized (this) {
+                tasks.forEach(task -> task.cancelled |= task.id == id);
+                added.forEach(task -> task.cancelled |= task.id == id);
+            }
+            return null;
+        }
+        if (name.equals("cancelTasks")) {
+            synchronized (this) {
+                tasks.forEach(task -> task.cancelled = true);
+                added.forEach(task -> task.cancelled = true);
+            }
+            return null;
+        }
+        if (!name.startsWith("runTask")) {
+            throw new UnsupportedOperationException("SimScheduler does not support " + name);
+        }
+
+        long delay = 0;
+        long period = -1;
+        if (name.startsWith("runTaskTimer")) {
+            delay = (Long) args[2];
+            period = Math.max(1L, (Long) args[3]);
+        } else if (name.startsWith("runTaskLater")) {
+            delay = (Long) args[2];
+        }
+
+        Task task;
+        synchronized (this) {
+            task = new Task(nextId++, (Plugin) args[0], name.endsWith("Asynchronously"), period);
+            task.nextTick = currentTick + Math.max(1L, delay);
+            added.add(task);
+        }
+
+        if (args[1] instanceof Runnable) {
+            task.runnable = (Runnable) args[1];
+        } else {
+            @SuppressWarnings("unchecked")
+            Consumer<BukkitTask> consumer = (Consumer<BukkitTask>) args[1];
+            task.runnable = () -> consumer.accept(task.handle);
+        }
+        return task.handle;
+    }
+
+    /**
+     * Run every sync task due on this tick and submit due async tasks.
+     */
+    void tick(long tick) {
+        List<Task> due = new ArrayList<>();
+        synchronized (this) {
+            currentTick = tick;
+            tasks.addAll(added);
+            added.clear();
+            tasks.removeIf(task -> task.cancelled);
+            for (Task task : tasks) {
+                if (task.nextTick <= tick) {
+                    due.add(task);
+                }
+            }
+        }
+
+        for (Task task : due) {
+            if (task.period > 0) {
+                task.nextTick = tick + task.period;
+            } else {
+                task.cancelled = true;
+            }
+
+            if (!task.async) {
+                task.runnable.run();
+            } else {
+                asyncPool.submit(task.runnable);
+            }
+        }
+    }
+
+    void shutdown() throws InterruptedException {
+        asyncPool.shutdown();
+        asyncPool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private final class Task {
+        private final int id;
+        private final boolean async;
+        private final long period;
+        private final BukkitTask handle;
+        private Runnable runnable;
+        private long nextTick;
+        private volatile boolean cancelled;
+
+        private Task(int id, Plugin owner, boolean async, long period) {
+            this.id = id;
+            this.async = async;
+            this.period = period;
+            this.handle = Stubs.create(BukkitTask.class, (self, method, args) -> {
+                switch (method.getName()) {
+                    case "getTaskId":
+                        return this.id;
+                    case "getOwner":
+                        return owner;
+                    case "isSync":
+                        return !this.async;
+                    case "isCancelled":
+                        return cancelled;
+                    case "cancel":
+                        cancelled = true;
+                        return null;
+                    default:
+                        return Stubs.defaultValue(method.getReturnType());
+                }
+            });
+        }
+    }
+}
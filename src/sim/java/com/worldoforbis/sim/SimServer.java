@@ -0,0 +1,107 @@
+package com.worldoforbis.sim;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.plugin.PluginManager;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Headless stand-in for the Bukkit server with a fixed set of online players.
+ */
+final class SimServer {
+
+    final Logger logger = Logger.getLogger("EcononeedsSim");
+    final SimScheduler scheduler = new SimScheduler();
+    final Server proxy;
+
+    private final Map<String, SimPlayer> playersByName = new HashMap<>();
+    private final Map<UUID, SimPlayer> playersById = new HashMap<>();
+    private final List<org.bukkit.entity.Player> online = new ArrayList<>();
+    private final Thread mainThread = Thread.currentThread();
+
+    private final PluginManager pluginManager = Stubs.create(PluginManager.class,
+            (self, method, args) -> Stubs.defaultValue(method.getReturnType()));
+
+    // ItemStack#hasItemMeta asks the item factory whether meta equals none
+    private final ItemFactory itemFactory = Stubs.create(ItemFactory.class, (self, method, args) -> {
+        if (method.getName().equals("equals")) {
+            return Objects.equals(args[0], args[1]);
+        }
+        return Stubs.defaultValue(method.getReturnType());
+    });
+
+    SimServer() {
+        // Keep plugin logging out of the I/O figures
+        logger.setUseParentHandlers(false);
+        this.proxy = Stubs.create(Server.class, (self, method, args) -> handle(method, args));
+    }
+
+    void addPlayer(SimPlayer player) {
+        playersByName.put(player.name.toLowerCase(Locale.ROOT), player);
+        playersById.put(player.uuid, player);
+        online.add(player.proxy);
+    }
+
+    private Object handle(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getLogger":
+                return logger;
+            case "getScheduler":
+                return scheduler.proxy;
+            case "getPluginManager":
+                return pluginManager;
+            case "getItemFactory":
+                return itemFactory;
+            case "getName":
+                return "EcononeedsSim";
+            case "getVersion":
+            case "getBukkitVersion":
+                return "sim";
+            case "isPrimaryThread":
+                return Thread.currentThread() == mainThread;
+            case "getOnlinePlayers":
+                return Collections.unmodifiableCollection((Collection<?>) online);
+            case "getPlayer":
+            case "getPlayerExact":
+                return findPlayer(args[0]);
+            case "getOfflinePlayer":
+                return getOfflinePlayer(args[0]);
+            default:
+                return Stubs.defaultValue(method.getReturnType());
+        }
+    }
+
+    private org.bukkit.entity.Player findPlayer(Object key) {
+        SimPlayer player = key instanceof UUID
+                ? playersById.get(key)
+                : playersByName.get(String.valueOf(key).toLowerCase(Locale.ROOT));
+        return player != null ? player.proxy : null;
+    }
+
+    private OfflinePlayer getOfflinePlayer(Object key) {
+        org.bukkit.entity.Player player = findPlayer(key);
+        if (player != null) {
+            return player;
+        }
+
+        UUID uuid = key instanceof UUID ? (UUID) key : UUID.nameUUIDFromBytes(String.valueOf(key).getBytes());
+        return Stubs.create(OfflinePlayer.class, (self, method, args) -> {
+            if (method.getName().equals("getUniqueId")) {
+                return uuid;
+            }
+            return Stubs.defaultValue(method.getReturnType());
+        });
+    }
+}